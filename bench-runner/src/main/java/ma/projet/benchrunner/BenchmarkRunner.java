@@ -0,0 +1,100 @@
+package ma.projet.benchrunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remplace la procédure manuelle de la section 6 du README: pour chaque variante, recharge la base, démarre la
+ * variante, rejoue chaque scénario à chaque palier (50 -> 100 -> 200) puis écrit T2 (Markdown), CSV et .hgrm.
+ * Relève aussi le démarrage (health, première réponse) et la RSS de chaque variante; --image=native lance les
+ * exécutables GraalVM à la place des jars pour comparer (T8).
+ *
+ * <pre>
+ * java -jar bench-runner/target/bench-runner.jar --variants=A,B,C,D --scenarios=read-heavy,join-filter \
+ *      --steps=50,100,200 --rate-per-thread=20 --warmup-seconds=30 --duration-seconds=120
+ * </pre>
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        Path repo = Path.of(opts.getOrDefault("repo", ".")).toAbsolutePath().normalize();
+        List<Variant> variants = split(opts.getOrDefault("variants", "A,B,C,D")).stream().map(Variant::of).toList();
+        List<Scenario> scenarios = split(opts.getOrDefault("scenarios", "read-heavy,join-filter,mixed,heavy-body"))
+                .stream().map(Scenario::of).toList();
+        List<Integer> steps = split(opts.getOrDefault("steps", "50,100,200")).stream().map(Integer::valueOf).toList();
+        double ratePerThread = Double.parseDouble(opts.getOrDefault("rate-per-thread", "20"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("warmup-seconds", "30")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("duration-seconds", "120")));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("timeout-seconds", "30")));
+        List<String> jvmArgs = split(opts.getOrDefault("jvm-args", "-Xms1g,-Xmx1g"));
+        String image = opts.getOrDefault("image", "jvm");
+        if (!image.equals("jvm") && !image.equals("native")) throw new IllegalArgumentException("--image=jvm|native: " + image);
+        Path out = repo.resolve(opts.getOrDefault("out", "bench-results"));
+        Dataset data = Dataset.load(repo.resolve(opts.getOrDefault("data-dir", "data")));
+
+        Files.createDirectories(out);
+        Report report = new Report(image);
+        try (Database db = opts.containsKey("jdbc-url")
+                ? Database.external(opts.get("jdbc-url"), opts.getOrDefault("db-user", "bench"), opts.getOrDefault("db-password", "bench123"))
+                : Database.embedded()) {
+            for (Variant v : variants) {
+                log("%s: rechargement de la base (%d catégories, %d items)", v.label, data.categoryCount(), data.itemCount());
+                db.reload(repo.resolve("init.sql"), data);
+                Path log = out.resolve(v.module + ".log");
+                long launched = System.nanoTime();
+                Process app = v.start(repo, db, jvmArgs, log, image.equals("native"));
+                try {
+                    long healthy = System.nanoTime() - launched;
+                    long firstResponse = healthy + v.firstRequest();
+                    long startRss = Variant.rssKb(app);
+                    log("%s (%s): prête en %d ms, première réponse à %d ms, RSS %d Ko", v.label, image,
+                            healthy / 1_000_000, firstResponse / 1_000_000, startRss);
+                    LoadGenerator load = new LoadGenerator(v.baseUri(), data, timeout);
+                    for (Scenario s : scenarios) {
+                        for (int threads : steps) {
+                            double rate = threads * ratePerThread;
+                            log("%s / %s / %d threads: %.0f req/s pendant %ds", v.label, s.label, threads, rate, duration.toSeconds());
+                            StepResult r = load.run(s, threads, rate, warmup, duration);
+                            report.add(v, r);
+                            log("  -> %.1f req/s, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, erreurs %.2f %%",
+                                    r.rps(), r.percentileMillis(50), r.percentileMillis(99), r.percentileMillis(99.9), r.errorPercent());
+                        }
+                    }
+                    report.add(v, new Footprint(healthy, firstResponse, startRss, Variant.rssKb(app)));
+                } finally {
+                    app.destroy();
+                    app.waitFor();
+                }
+                report.write(out, variants, scenarios, steps); // résultats partiels conservés si une variante échoue
+            }
+        }
+        log("T2: %s, CSV: %s", out.resolve("t2.md"), out.resolve("results.csv"));
+        System.out.println();
+        System.out.print(report.markdown(variants, scenarios, steps));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) throw new IllegalArgumentException("option attendue --clé=valeur: " + a);
+            int eq = a.indexOf('=');
+            opts.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return opts;
+    }
+
+    private static List<String> split(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[bench] " + format + "%n", args);
+    }
+}
@@ -0,0 +1,92 @@
+package ma.projet.benchrunner;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base du benchmark: PostgreSQL embarqué (défaut) ou instance existante (--jdbc-url).
+ * Rechargée avant chaque variante (init.sql puis COPY des CSV) pour que les écritures de MIXED / HEAVY-body
+ * d'une variante ne changent pas les données lues par la suivante.
+ */
+final class Database implements AutoCloseable {
+    private final EmbeddedPostgres embedded;
+    private final String host;
+    private final int port;
+    private final String name;
+    private final String user;
+    private final String password;
+
+    private Database(EmbeddedPostgres embedded, String host, int port, String name, String user, String password) {
+        this.embedded = embedded;
+        this.host = host;
+        this.port = port;
+        this.name = name;
+        this.user = user;
+        this.password = password;
+    }
+
+    static Database embedded() throws IOException {
+        EmbeddedPostgres pg = EmbeddedPostgres.builder().start();
+        return new Database(pg, "localhost", pg.getPort(), "postgres", "postgres", "postgres");
+    }
+
+    /** jdbc:postgresql://host:port/db */
+    static Database external(String jdbcUrl, String user, String password) {
+        URIParts p = URIParts.parse(jdbcUrl);
+        return new Database(null, p.host(), p.port(), p.db(), user, password);
+    }
+
+    String jdbcUrl() { return "jdbc:postgresql://" + host + ":" + port + "/" + name; }
+    String r2dbcUrl() { return "r2dbc:postgresql://" + host + ":" + port + "/" + name; }
+    String user() { return user; }
+    String password() { return password; }
+
+    /** Schéma (init.sql, idempotent) puis catégories et items des CSV par COPY; séquences replacées après max(id). */
+    void reload(Path initSql, Dataset data) throws IOException, SQLException {
+        try (Connection c = DriverManager.getConnection(jdbcUrl(), user, password); Statement st = c.createStatement()) {
+            st.execute(Files.readString(initSql));
+            // colonne ajoutée par V1__baseline.sql (init.sql d'avant la recherche texte ne l'avait pas): nécessaire au COPY
+            st.execute("ALTER TABLE item ADD COLUMN IF NOT EXISTS description VARCHAR(5000)");
+            st.execute("TRUNCATE item, category, item_tombstone, category_tombstone CASCADE");
+            CopyManager copy = c.unwrap(PGConnection.class).getCopyAPI();
+            try (Reader r = Files.newBufferedReader(data.dir.resolve("categories.csv"))) {
+                copy.copyIn("COPY category (id, code, name) FROM STDIN WITH (FORMAT csv, HEADER true)", r);
+            }
+            try (Reader r = Files.newBufferedReader(data.dir.resolve("items.csv"))) {
+                copy.copyIn("COPY item (id, sku, name, price, stock, category_id, description) FROM STDIN WITH (FORMAT csv, HEADER true)", r);
+            }
+            // même calcul que V2__pooled_id_sequences.sql (nextval = borne haute du bloc de 50)
+            st.execute("SELECT setval('category_id_seq', COALESCE((SELECT MAX(id) FROM category), 0) + 50, false)");
+            st.execute("SELECT setval('item_id_seq', COALESCE((SELECT MAX(id) FROM item), 0) + 50, false)");
+            st.execute("ANALYZE category");
+            st.execute("ANALYZE item");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) embedded.close();
+    }
+
+    private record URIParts(String host, int port, String db) {
+        static URIParts parse(String jdbcUrl) {
+            String rest = jdbcUrl.substring("jdbc:postgresql://".length());
+            int slash = rest.indexOf('/');
+            String hostPort = rest.substring(0, slash);
+            String db = rest.substring(slash + 1).split("\\?")[0];
+            int colon = hostPort.indexOf(':');
+            return colon < 0 ? new URIParts(hostPort, 5432, db)
+                    : new URIParts(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)), db);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ma.projet.benchrunner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Données des plans JMeter (scripts/generate_dataset.py): CATEGORY_ID, ITEM_ID et lignes JSONL 1 KB / 5 KB.
+ * Comme les CSV Data Set des .jmx (recycle=true, shareMode.all): chaque accès prend la valeur suivante, en boucle.
+ */
+final class Dataset {
+    private static final Pattern SKU = Pattern.compile("\"sku\"\\s*:\\s*\"([^\"]*)\"");
+
+    final Path dir;
+    private final long[] categoryIds;
+    private final long[] itemIds;
+    private final String[] smallPayloads;
+    private final String[] largePayloads;
+    private final AtomicLong categoryCursor = new AtomicLong();
+    private final AtomicLong itemCursor = new AtomicLong();
+    private final AtomicLong smallCursor = new AtomicLong();
+    private final AtomicLong largeCursor = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+
+    private Dataset(Path dir, long[] categoryIds, long[] itemIds, String[] smallPayloads, String[] largePayloads) {
+        this.dir = dir;
+        this.categoryIds = categoryIds;
+        this.itemIds = itemIds;
+        this.smallPayloads = smallPayloads;
+        this.largePayloads = largePayloads;
+    }
+
+    static Dataset load(Path dir) {
+        return new Dataset(dir,
+                ids(dir.resolve("category_ids.csv")),
+                ids(dir.resolve("item_ids.csv")),
+                lines(dir.resolve("items_payload_small.jsonl")),
+                lines(dir.resolve("items_payload_large.jsonl")));
+    }
+
+    long categoryId() { return categoryIds[(int) (categoryCursor.getAndIncrement() % categoryIds.length)]; }
+    long itemId() { return itemIds[(int) (itemCursor.getAndIncrement() % itemIds.length)]; }
+    String smallPayload() { return smallPayloads[(int) (smallCursor.getAndIncrement() % smallPayloads.length)]; }
+    String largePayload() { return largePayloads[(int) (largeCursor.getAndIncrement() % largePayloads.length)]; }
+
+    /**
+     * Corps de POST: SKU suffixé d'un compteur, sinon la contrainte unique rejetterait chaque
+     * création après le premier passage sur le fichier (erreurs 500/409 sans rapport avec la variante).
+     */
+    String forCreate(String payload) {
+        Matcher m = SKU.matcher(payload);
+        if (!m.find()) return payload;
+        String sku = m.group(1) + "-" + Long.toString(created.incrementAndGet(), 36);
+        return payload.substring(0, m.start(1)) + sku + payload.substring(m.end(1));
+    }
+
+    long categoryCount() { return categoryIds.length; }
+    long itemCount() { return itemIds.length; }
+
+    private static long[] ids(Path csv) {
+        return read(csv).stream().skip(1).filter(l -> !l.isBlank()).mapToLong(l -> Long.parseLong(l.trim())).toArray();
+    }
+
+    private static String[] lines(Path jsonl) {
+        return read(jsonl).stream().filter(l -> !l.isBlank()).toArray(String[]::new);
+    }
+
+    private static List<String> read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException(file + " introuvable: python scripts/generate_dataset.py --out-dir " + file.getParent());
+        }
+        try {
+            return Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ma.projet.benchrunner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Démarrage et mémoire d'une variante: lancement -> /actuator/health UP, lancement -> fin de la première requête
+ * GET /items, RSS (Ko) une fois prête puis après tous les paliers.
+ */
+record Footprint(long healthyNanos, long firstResponseNanos, long startRssKb, long loadedRssKb) {
+
+    double healthyMillis() { return healthyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1); }
+
+    double firstResponseMillis() { return firstResponseNanos / (double) TimeUnit.MILLISECONDS.toNanos(1); }
+}
@@ -0,0 +1,85 @@
+package ma.projet.benchrunner;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Charge en modèle ouvert: les requêtes partent à débit constant (rate req/s), indépendamment des réponses.
+ * concurrency borne les requêtes en vol (l'équivalent des threads JMeter); quand la borne est atteinte, la requête
+ * attend, mais sa latence est comptée depuis l'instant où elle aurait dû partir: pas d'omission coordonnée.
+ */
+final class LoadGenerator {
+    private static final long HIGHEST_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final HttpClient client;
+    private final URI base;
+    private final Dataset data;
+    private final Duration timeout;
+
+    LoadGenerator(URI base, Dataset data, Duration timeout) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.base = base;
+        this.data = data;
+        this.timeout = timeout;
+    }
+
+    /** Chauffe (résultats ignorés) puis mesure, à rate req/s et au plus concurrency requêtes en vol. */
+    StepResult run(Scenario scenario, int concurrency, double rate, Duration warmup, Duration duration) {
+        drive(scenario, concurrency, rate, warmup, new Recording());
+        Recording rec = new Recording();
+        long elapsed = drive(scenario, concurrency, rate, duration, rec);
+        return new StepResult(scenario, concurrency, rate, rec.latencies.copy(),
+                rec.ok.get(), rec.errors.get(), elapsed);
+    }
+
+    // retourne la durée réelle (ns) entre le premier envoi prévu et la dernière réponse
+    private long drive(Scenario scenario, int concurrency, double rate, Duration length, Recording rec) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long period = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (long intended = start; intended < end; intended += period) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            inFlight.acquireUninterruptibly();
+            send(scenario.next(data), intended, inFlight, rec);
+        }
+        inFlight.acquireUninterruptibly(concurrency); // attend les dernières réponses
+        return System.nanoTime() - start;
+    }
+
+    private void send(Scenario.Request r, long intended, Semaphore inFlight, Recording rec) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(base.resolve(r.path())).timeout(timeout);
+        if (r.json() != null) {
+            b.header("Content-Type", "application/json").method(r.method(), HttpRequest.BodyPublishers.ofString(r.json()));
+        } else {
+            b.method(r.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        client.sendAsync(b.build(), HttpResponse.BodyHandlers.discarding()).whenComplete((resp, error) -> {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+            rec.latencies.recordValue(Math.min(Math.max(micros, 1), HIGHEST_MICROS));
+            if (error == null && resp.statusCode() < 400) rec.ok.incrementAndGet();
+            else rec.errors.incrementAndGet();
+            inFlight.release();
+        });
+    }
+
+    private static final class Recording {
+        final Histogram latencies = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,118 @@
+package ma.projet.benchrunner;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Résultats au format du tableau T2 du README (une table par palier de concurrence), en CSV
+ * (une ligne par variante x scénario x palier) et en distributions HdrHistogram (.hgrm, en ms).
+ * Démarrage et RSS par variante (T8) dans footprint.csv et en tête de t2.md.
+ */
+final class Report {
+    private final String image;
+    private final Map<Variant, List<StepResult>> results = new LinkedHashMap<>();
+    private final Map<Variant, Footprint> footprints = new LinkedHashMap<>();
+
+    Report(String image) {
+        this.image = image;
+    }
+
+    void add(Variant variant, StepResult step) {
+        results.computeIfAbsent(variant, v -> new ArrayList<>()).add(step);
+    }
+
+    void add(Variant variant, Footprint footprint) {
+        footprints.put(variant, footprint);
+    }
+
+    void write(Path dir, List<Variant> variants, List<Scenario> scenarios, List<Integer> steps) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("t2.md"), markdown(variants, scenarios, steps));
+        Files.writeString(dir.resolve("results.csv"), csv());
+        Files.writeString(dir.resolve("footprint.csv"), footprintCsv());
+        for (Map.Entry<Variant, List<StepResult>> e : results.entrySet()) {
+            for (StepResult r : e.getValue()) {
+                Path hgrm = dir.resolve(e.getKey().module + "-" + r.scenario().id + "-" + r.concurrency() + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(hgrm))) {
+                    r.latencies().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+    }
+
+    String markdown(List<Variant> variants, List<Scenario> scenarios, List<Integer> steps) {
+        StringBuilder sb = new StringBuilder();
+        if (!footprints.isEmpty()) {
+            sb.append("### T8 — Démarrage et mémoire (").append(image).append(")\n\n");
+            sb.append("| Variante | Démarrage -> health (ms) | 1re réponse GET /items (ms) | RSS prête (Mo) | RSS après charge (Mo) |\n");
+            sb.append("|---|---:|---:|---:|---:|\n");
+            footprints.forEach((v, f) -> sb.append("| ").append(v.label).append(" | ").append(fmt(f.healthyMillis()))
+                    .append(" | ").append(fmt(f.firstResponseMillis())).append(" | ").append(mb(f.startRssKb()))
+                    .append(" | ").append(mb(f.loadedRssKb())).append(" |\n"));
+            sb.append('\n');
+        }
+        for (int threads : steps) {
+            sb.append("### T2 — Résultats (").append(threads).append(" threads)\n\n");
+            sb.append("| Scénario | Mesure |");
+            variants.forEach(v -> sb.append(' ').append(v.label).append(" |"));
+            sb.append("\n|---|---|");
+            variants.forEach(v -> sb.append("---:|"));
+            sb.append('\n');
+            for (Scenario s : scenarios) {
+                row(sb, s.label, "RPS", variants, s, threads, r -> fmt(r.rps()));
+                row(sb, "", "p50 (ms)", variants, s, threads, r -> fmt(r.percentileMillis(50)));
+                row(sb, "", "p95 (ms)", variants, s, threads, r -> fmt(r.percentileMillis(95)));
+                row(sb, "", "p99 (ms)", variants, s, threads, r -> fmt(r.percentileMillis(99)));
+                row(sb, "", "p99.9 (ms)", variants, s, threads, r -> fmt(r.percentileMillis(99.9)));
+                row(sb, "", "Err %", variants, s, threads, r -> fmt(r.errorPercent()));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    String csv() {
+        StringBuilder sb = new StringBuilder("variant,scenario,threads,target_rps,rps,p50_ms,p95_ms,p99_ms,p999_ms,max_ms,requests,errors,error_pct\n");
+        results.forEach((v, steps) -> steps.forEach(r -> sb.append(String.join(",",
+                v.name(), r.scenario().id, Integer.toString(r.concurrency()), fmt(r.targetRate()), fmt(r.rps()),
+                fmt(r.percentileMillis(50)), fmt(r.percentileMillis(95)), fmt(r.percentileMillis(99)),
+                fmt(r.percentileMillis(99.9)), fmt(r.latencies().getMaxValue() / 1000.0),
+                Long.toString(r.requests()), Long.toString(r.errors()), fmt(r.errorPercent()))).append('\n')));
+        return sb.toString();
+    }
+
+    String footprintCsv() {
+        StringBuilder sb = new StringBuilder("variant,image,healthy_ms,first_response_ms,start_rss_kb,loaded_rss_kb\n");
+        footprints.forEach((v, f) -> sb.append(String.join(",", v.name(), image, fmt(f.healthyMillis()),
+                fmt(f.firstResponseMillis()), Long.toString(f.startRssKb()), Long.toString(f.loadedRssKb()))).append('\n'));
+        return sb.toString();
+    }
+
+    private void row(StringBuilder sb, String scenario, String measure, List<Variant> variants, Scenario s, int threads,
+                     Function<StepResult, String> value) {
+        sb.append("| ").append(scenario).append(" | ").append(measure).append(" |");
+        for (Variant v : variants) {
+            String cell = results.getOrDefault(v, List.of()).stream()
+                    .filter(r -> r.scenario() == s && r.concurrency() == threads)
+                    .findFirst().map(value).orElse("");
+            sb.append(' ').append(cell).append(" |");
+        }
+        sb.append('\n');
+    }
+
+    private static String fmt(double d) {
+        return String.format(Locale.ROOT, "%.2f", d);
+    }
+
+    private static String mb(long kb) {
+        return kb < 0 ? "" : String.format(Locale.ROOT, "%.1f", kb / 1024.0);
+    }
+}
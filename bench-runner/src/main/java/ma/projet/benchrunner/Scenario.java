@@ -0,0 +1,66 @@
+package ma.projet.benchrunner;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Les quatre plans de jmeter/ (mêmes chemins, mêmes proportions que les ThroughputController).
+ */
+enum Scenario {
+    READ_HEAVY("read-heavy", "READ-heavy", List.of(
+            new Weighted(50, d -> Request.get("/items?page=0&size=50")),
+            new Weighted(20, d -> Request.get("/items?categoryId=" + d.categoryId() + "&page=0&size=50")),
+            new Weighted(20, d -> Request.get("/categories/" + d.categoryId() + "/items?page=0&size=50")),
+            new Weighted(10, d -> Request.get("/categories?page=0&size=50")))),
+    JOIN_FILTER("join-filter", "JOIN-filter", List.of(
+            new Weighted(70, d -> Request.get("/items?categoryId=" + d.categoryId() + "&page=0&size=50")),
+            new Weighted(30, d -> Request.get("/items/" + d.itemId())))),
+    MIXED("mixed", "MIXED", List.of(
+            new Weighted(40, d -> Request.get("/items?page=0&size=50")),
+            new Weighted(20, d -> Request.body("POST", "/items", d.forCreate(d.smallPayload()))),
+            new Weighted(10, d -> Request.body("PUT", "/items/" + d.itemId(), d.smallPayload())),
+            new Weighted(10, d -> new Request("DELETE", "/items/" + d.itemId(), null)),
+            new Weighted(10, d -> Request.body("POST", "/categories", "{\"code\":\"CAT" + ThreadLocalRandom.current().nextInt(3001, 9001)
+                    + "\",\"name\":\"Category " + Long.toString(ThreadLocalRandom.current().nextLong(1L << 30), 16) + "\"}")),
+            new Weighted(10, d -> {
+                long id = d.categoryId();
+                return Request.body("PUT", "/categories/" + id, "{\"code\":\"CAT" + id + "\",\"name\":\"Category " + id + " updated\"}");
+            }))),
+    HEAVY_BODY("heavy-body", "HEAVY-body", List.of(
+            new Weighted(50, d -> Request.body("POST", "/items", d.forCreate(d.largePayload()))),
+            new Weighted(50, d -> Request.body("PUT", "/items/" + d.itemId(), d.largePayload()))));
+
+    final String id;
+    final String label;
+    private final List<Weighted> mix;
+    private final int totalWeight;
+
+    Scenario(String id, String label, List<Weighted> mix) {
+        this.id = id;
+        this.label = label;
+        this.mix = mix;
+        this.totalWeight = mix.stream().mapToInt(Weighted::weight).sum();
+    }
+
+    Request next(Dataset data) {
+        int r = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Weighted w : mix) {
+            r -= w.weight();
+            if (r < 0) return w.build().apply(data);
+        }
+        throw new IllegalStateException();
+    }
+
+    static Scenario of(String id) {
+        for (Scenario s : values()) if (s.id.equals(id)) return s;
+        throw new IllegalArgumentException("scénario inconnu: " + id);
+    }
+
+    record Request(String method, String path, String json) {
+        static Request get(String path) { return new Request("GET", path, null); }
+        static Request body(String method, String path, String json) { return new Request(method, path, json); }
+    }
+
+    private record Weighted(int weight, Function<Dataset, Request> build) {}
+}
@@ -0,0 +1,20 @@
+package ma.projet.benchrunner;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesures d'un palier (scénario x concurrence) pour une variante. Latences en µs.
+ */
+record StepResult(Scenario scenario, int concurrency, double targetRate, Histogram latencies,
+                  long ok, long errors, long elapsedNanos) {
+
+    long requests() { return ok + errors; }
+
+    double rps() { return requests() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)); }
+
+    double errorPercent() { return requests() == 0 ? 0 : 100.0 * errors / requests(); }
+
+    double percentileMillis(double p) { return latencies.getValueAtPercentile(p) / 1000.0; }
+}
@@ -0,0 +1,137 @@
+package ma.projet.benchrunner;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Variante lancée dans sa propre JVM (java -jar du jar Spring Boot du module), pointée sur la base du runner.
+ * JVM séparée plutôt que même JVM: le GC et les threads du générateur ne faussent pas les mesures serveur,
+ * et les auto-configurations des quatre stacks ne se mélangent pas. --image=native: exécutable GraalVM du module
+ * (target/<module>, mvn -Pnative native:compile) à la place du jar.
+ */
+enum Variant {
+    A("A : Jersey", "jersey", 8081, false),
+    B("B : WebFlux", "webflux", 8084, true),
+    C("C : @RestController", "rest-controller", 8082, false),
+    D("D : Spring Data REST", "spring-data-rest", 8083, false);
+
+    final String label;
+    final String module;
+    final int port;
+    private final boolean r2dbc;
+
+    Variant(String label, String module, int port, boolean r2dbc) {
+        this.label = label;
+        this.module = module;
+        this.port = port;
+        this.r2dbc = r2dbc;
+    }
+
+    static Variant of(String s) {
+        for (Variant v : values()) if (v.name().equalsIgnoreCase(s) || v.module.equals(s)) return v;
+        throw new IllegalArgumentException("variante inconnue: " + s);
+    }
+
+    URI baseUri() {
+        return URI.create("http://localhost:" + port);
+    }
+
+    /** Démarre la variante et attend /actuator/health (UP). jvmArgs: -Xms/-Xmx aussi acceptés par l'image native. */
+    Process start(Path repo, Database db, List<String> jvmArgs, Path log, boolean nativeImage) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        if (nativeImage) {
+            cmd.add(executable(repo).toString());
+            cmd.addAll(jvmArgs);
+        } else {
+            cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            cmd.addAll(jvmArgs);
+            cmd.add("-jar");
+            cmd.add(jar(repo).toString());
+        }
+        cmd.add("--server.port=" + port);
+        if (r2dbc) {
+            cmd.add("--spring.r2dbc.url=" + db.r2dbcUrl());
+            cmd.add("--spring.r2dbc.username=" + db.user());
+            cmd.add("--spring.r2dbc.password=" + db.password());
+            cmd.add("--spring.flyway.url=" + db.jdbcUrl());
+        } else {
+            cmd.add("--spring.datasource.url=" + db.jdbcUrl());
+            cmd.add("--spring.datasource.username=" + db.user());
+            cmd.add("--spring.datasource.password=" + db.password());
+        }
+        cmd.add("--logging.level.org.hibernate.SQL=WARN");
+        cmd.add("--spring.jpa.show-sql=false");
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        awaitHealthy(p, log);
+        return p;
+    }
+
+    private void awaitHealthy(Process p, Path log) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(baseUri().resolve("/actuator/health")).timeout(Duration.ofSeconds(2)).build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(3).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!p.isAlive()) throw new IllegalStateException(label + " arrêtée au démarrage, voir " + log);
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (IOException e) {
+                // pas encore à l'écoute
+            }
+            Thread.sleep(50); // pas fin: l'instant de disponibilité sert de mesure de démarrage
+        }
+        p.destroyForcibly();
+        throw new IllegalStateException(label + " non prête après 3 min, voir " + log);
+    }
+
+    /** Durée (ns) d'un premier GET /items?page=0&size=50: initialisations paresseuses (servlet, Hibernate, Jackson). */
+    long firstRequest() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest first = HttpRequest.newBuilder(baseUri().resolve("/items?page=0&size=50")).timeout(Duration.ofSeconds(30)).build();
+        long start = System.nanoTime();
+        int status = client.send(first, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) throw new IllegalStateException(label + ": première requête en " + status);
+        return System.nanoTime() - start;
+    }
+
+    /** RSS du processus en Ko (/proc, Linux), -1 ailleurs. */
+    static long rssKb(Process p) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(p.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        } catch (IOException | NumberFormatException e) {
+            // pas de /proc
+        }
+        return -1;
+    }
+
+    // exécutable natif: imageName = artifactId du module
+    private Path executable(Path repo) {
+        Path exe = repo.resolve(module).resolve("target").resolve(module);
+        if (!Files.isExecutable(exe)) throw new IllegalStateException("mvn -f " + module + " -Pnative native:compile -DskipTests d'abord");
+        return exe;
+    }
+
+    // jar exécutable: <module>-*-exec.jar (classifier exec) ou, à défaut, le jar Spring Boot non suffixé
+    private Path jar(Path repo) throws IOException {
+        Path target = repo.resolve(module).resolve("target");
+        if (!Files.isDirectory(target)) throw new IllegalStateException("mvn -f " + module + " package -DskipTests d'abord");
+        try (Stream<Path> jars = Files.list(target)) {
+            List<Path> candidates = jars.map(Path::getFileName).map(Path::toString)
+                    .filter(n -> n.startsWith(module + "-") && n.endsWith(".jar") && !n.endsWith("-sources.jar") && !n.endsWith("-javadoc.jar"))
+                    .sorted((x, y) -> Boolean.compare(y.endsWith("-exec.jar"), x.endsWith("-exec.jar")))
+                    .map(target::resolve).toList();
+            if (candidates.isEmpty()) throw new IllegalStateException("aucun jar dans " + target);
+            return candidates.get(0);
+        }
+    }
+}
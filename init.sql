@@ -17,4 +17,55 @@ CREATE TABLE IF NOT EXISTS item (
     );
 
 CREATE INDEX IF NOT EXISTS idx_item_category ON item(category_id);
-CREATE INDEX IF NOT EXISTS idx_item_updated_at ON item(updated_at);
+-- pagination keyset (category_id, id) > (:cid, :after)
+CREATE INDEX IF NOT EXISTS idx_item_category_id ON item(category_id, id);
+-- curseur (updated_at, id) du flux de changements, cf. V6__change_feed.sql (remplace l'index sur updated_at seul)
+CREATE INDEX IF NOT EXISTS idx_item_updated_id ON item(updated_at, id);
+DROP INDEX IF EXISTS idx_item_updated_at;
+CREATE INDEX IF NOT EXISTS idx_category_updated_id ON category(updated_at, id);
+-- filtres / tris de GET /items (?minPrice, maxPrice, inStock, updatedSince, sort), cf. V4__item_search_indexes.sql
+CREATE INDEX IF NOT EXISTS idx_item_price_id ON item(price, id);
+CREATE INDEX IF NOT EXISTS idx_item_category_price ON item(category_id, price, id);
+CREATE INDEX IF NOT EXISTS idx_item_category_updated ON item(category_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_item_in_stock_id ON item(id) WHERE stock > 0;
+CREATE INDEX IF NOT EXISTS idx_item_in_stock_price ON item(price, id) WHERE stock > 0;
+CREATE INDEX IF NOT EXISTS idx_item_in_stock_updated ON item(updated_at, id) WHERE stock > 0;
+CREATE INDEX IF NOT EXISTS idx_item_category_in_stock ON item(category_id, id) WHERE stock > 0;
+-- recherche texte GET /items/search?q=, cf. V5__item_text_search.sql (description ajoutée ici pour la colonne générée)
+ALTER TABLE item ADD COLUMN IF NOT EXISTS description VARCHAR(5000);
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+ALTER TABLE item ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple'::regconfig, coalesce(name, '')), 'A')
+    || setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_item_search_vector ON item USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_item_sku_trgm ON item USING GIN (sku gin_trgm_ops);
+-- tombstones du flux de changements (GET /items/changes, GET /categories/changes), cf. V6__change_feed.sql
+CREATE TABLE IF NOT EXISTS item_tombstone (
+    id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+    );
+CREATE INDEX IF NOT EXISTS idx_item_tombstone_deleted_id ON item_tombstone(deleted_at, id);
+
+CREATE TABLE IF NOT EXISTS category_tombstone (
+    id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+    );
+CREATE INDEX IF NOT EXISTS idx_category_tombstone_deleted_id ON category_tombstone(deleted_at, id);
+
+-- clock_timestamp(): instant du DELETE et non du début de transaction (rapproché de la borne "now - lag" du flux)
+CREATE OR REPLACE FUNCTION item_tombstone() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO item_tombstone (id, deleted_at) VALUES (OLD.id, clock_timestamp()::timestamp)
+    ON CONFLICT (id) DO UPDATE SET deleted_at = excluded.deleted_at;
+    RETURN OLD;
+END $$;
+
+CREATE OR REPLACE FUNCTION category_tombstone() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO category_tombstone (id, deleted_at) VALUES (OLD.id, clock_timestamp()::timestamp)
+    ON CONFLICT (id) DO UPDATE SET deleted_at = excluded.deleted_at;
+    RETURN OLD;
+END $$;
+
+CREATE OR REPLACE TRIGGER item_tombstone AFTER DELETE ON item FOR EACH ROW EXECUTE FUNCTION item_tombstone();
+CREATE OR REPLACE TRIGGER category_tombstone AFTER DELETE ON category FOR EACH ROW EXECUTE FUNCTION category_tombstone();
@@ -0,0 +1,35 @@
+package ma.projet.jersey.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    static final List<String> REGIONS = List.of("items", "categories");
+
+    // Le cache L2 Hibernate réutilise le CacheManager JCache (Caffeine) de Spring
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(JCacheCacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager.getCacheManager());
+    }
+
+    // Les régions sont créées par Hibernate après le CacheManager: liaison Micrometer une fois les singletons prêts
+    @Bean
+    public SmartInitializingSingleton secondLevelCacheMetrics(CacheManager cacheManager, CacheMetricsRegistrar registrar) {
+        return () -> REGIONS.forEach(name -> {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) registrar.bindCacheToRegistry(cache);
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package ma.projet.jersey.config;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Compression des réponses (ResponseCompression): le corps des types de app.compression.mime-types est mis en
+ * mémoire, puis compressé sur le pool de compression (requête passée en asynchrone) s'il atteint le seuil et
+ * si le client accepte un encodage. Les autres types (NDJSON de l'export, réponses asynchrones) passent sans
+ * tampon. Un corps déjà encodé (ResponseCacheFilter) est transmis tel quel.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 6)
+public class CompressionFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(CompressionFilter.class);
+
+    private final ResponseCompression compression;
+
+    public CompressionFilter(ResponseCompression compression) {
+        this.compression = compression;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !compression.isEnabled() || "HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        BufferingResponse wrapper = new BufferingResponse(request, response);
+        try {
+            chain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            wrapper.copyBodyToResponse();
+            throw e;
+        }
+        if (!wrapper.buffering()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        // déjà présent sur un hit de ResponseCacheFilter
+        if (response.getHeaders(HttpHeaders.VARY).stream().noneMatch(v -> v.contains(HttpHeaders.ACCEPT_ENCODING))) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        String encoding = body.length > 0 && response.getHeader(HttpHeaders.CONTENT_ENCODING) == null && !request.isAsyncStarted()
+                ? compression.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), wrapper.getContentType(), body.length)
+                : null;
+        if (encoding == null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        Runnable task;
+        try {
+            AsyncContext async = request.startAsync(request, response);
+            task = () -> {
+                try {
+                    write(response, encoding, body);
+                } finally {
+                    async.complete();
+                }
+            };
+        } catch (IllegalStateException e) {
+            // chaîne sans support asynchrone: compression sur le thread de requête
+            write(response, encoding, body);
+            return;
+        }
+        try {
+            compression.executor().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run(); // arrêt en cours
+        }
+    }
+
+    private void write(HttpServletResponse response, String encoding, byte[] body) {
+        try {
+            byte[] compressed = compression.compress(encoding, body);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+            response.setContentLength(compressed.length);
+            response.getOutputStream().write(compressed);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Écriture de la réponse compressée interrompue: {}", e.toString());
+        }
+    }
+
+    /**
+     * Tampon seulement pour les types compressibles, décidé au premier accès au flux de sortie
+     * (Content-Type connu à ce moment); sinon flux, longueur et flush vont directement à la réponse.
+     */
+    private final class BufferingResponse extends ContentCachingResponseWrapper {
+        private final HttpServletRequest request;
+        private Boolean buffering;
+
+        BufferingResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        boolean buffering() {
+            return buffering != null ? buffering : compressibleNow();
+        }
+
+        private boolean compressibleNow() {
+            return !request.isAsyncStarted() && compression.compressible(getContentType());
+        }
+
+        private boolean decide() {
+            if (buffering == null) buffering = compressibleNow();
+            return buffering;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return decide() ? super.getOutputStream() : getResponse().getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return decide() ? super.getWriter() : getResponse().getWriter();
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            if (buffering()) super.setContentLength(len);
+            else getResponse().setContentLength(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (buffering()) super.setContentLengthLong(len);
+            else getResponse().setContentLengthLong(len);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (buffering()) super.flushBuffer();
+            else getResponse().flushBuffer();
+        }
+    }
+}
@@ -1,12 +1,31 @@
 package ma.projet.jersey.config;
 
+import ma.projet.jersey.web.CategoryResource;
+import ma.projet.jersey.web.ItemResource;
+import ma.projet.jersey.web.JacksonBinaryMessageBodyWriter;
+import ma.projet.jersey.web.OptimisticLockMapper;
+import ma.projet.jersey.web.ProtobufMessageBodyWriter;
+import ma.projet.jersey.web.SerializationTimingInterceptor;
+import ma.projet.jersey.web.VaryAcceptFilter;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+import java.util.List;
 
 @Configuration
 public class JerseyConfig extends ResourceConfig {
+    // ressources et @Provider de ma.projet.jersey.web, à tenir à jour: seule source en image native (pas de scan)
+    static final List<Class<?>> COMPONENTS = List.of(ItemResource.class, CategoryResource.class,
+            JacksonBinaryMessageBodyWriter.class, ProtobufMessageBodyWriter.class, OptimisticLockMapper.class,
+            SerializationTimingInterceptor.class, VaryAcceptFilter.class);
+
     public JerseyConfig() {
-        // Scan resources in this package
-        packages("ma.projet.jersey.web");
+        if (NativeDetector.inNativeImage()) {
+            COMPONENTS.forEach(this::register);
+        } else {
+            // Scan resources in this package
+            packages("ma.projet.jersey.web");
+        }
     }
 }
@@ -0,0 +1,45 @@
+package ma.projet.jersey.config;
+
+import ma.projet.jersey.domain.Category;
+import ma.projet.jersey.domain.Item;
+import ma.projet.jersey.repository.EntityVersion;
+import ma.projet.jersey.web.dto.BatchResult;
+import ma.projet.jersey.web.dto.CategoryDto;
+import ma.projet.jersey.web.dto.ChangeDto;
+import ma.projet.jersey.web.dto.ChangesResponse;
+import ma.projet.jersey.web.dto.ItemDto;
+import ma.projet.jersey.web.dto.ItemHitDto;
+import ma.projet.jersey.web.dto.PageResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Image native (profil Maven native): ce que l'AOT de Spring ne déduit pas seul. Jersey instancie et injecte
+ * ses ressources et providers par réflexion (HK2), hors du contexte AOT: JerseyConfig.COMPONENTS entièrement
+ * ouverts. Les entités de Response sont sérialisées par le provider Jackson de Jersey (DTO déclarés), les classes
+ * des "select new" JPQL instanciées par Hibernate; application.conf est lu par Caffeine JCache. Sans effet sur la JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeConfig.Hints.class)
+@RegisterReflectionForBinding({PageResponse.class, ItemDto.class, ItemHitDto.class, CategoryDto.class, BatchResult.class,
+        ChangesResponse.class, ChangeDto.class})
+public class NativeConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : JerseyConfig.COMPONENTS) {
+                hints.reflection().registerType(type, MemberCategory.values());
+            }
+            for (Class<?> type : new Class<?>[]{Item.class, Category.class, ItemDto.class, CategoryDto.class,
+                    EntityVersion.class}) {
+                hints.reflection().registerType(type, MemberCategory.values());
+            }
+            hints.resources().registerPattern("application.conf");
+        }
+    }
+}
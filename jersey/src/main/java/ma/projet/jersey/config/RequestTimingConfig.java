@@ -0,0 +1,46 @@
+package ma.projet.jersey.config;
+
+import jakarta.servlet.ServletException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Sources des phases de RequestTiming en dehors du code applicatif: valve Tomcat (début de lecture de la requête,
+ * donc attente avant les filtres comprise) et DataSource instrumentée (attente de connexion, exécution SQL).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.latency.enabled", havingValue = "true")
+public class RequestTimingConfig {
+
+    @Bean
+    WebServerFactoryCustomizer<TomcatServletWebServerFactory> requestStartValve() {
+        return factory -> factory.addEngineValves(new ValveBase(true) {
+            @Override
+            public void invoke(Request request, Response response) throws IOException, ServletException {
+                request.setAttribute(RequestTiming.CONTAINER_START, request.getCoyoteRequest().getStartTimeNanos());
+                getNext().invoke(request, response);
+            }
+        });
+    }
+
+    @Bean
+    static BeanPostProcessor timedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)
+                        ? new TimedDataSource(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package ma.projet.jersey.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource instrumentée pour RequestTiming: l'attente d'une connexion du pool compte en "queue",
+ * l'exécution des statements (execute*, executeBatch) en "db" et en nombre de statements, ResultSet.next()
+ * en lignes lues. Hibernate et JdbcTemplate passent tous deux ici.
+ * unwrap() reste délégué: le pool Hikari est toujours visible des métriques et d'AdmissionControlFilter.
+ */
+final class TimedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    TimedDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return wrap(super.getConnection());
+        } finally {
+            RequestTiming.addQueue(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return wrap(super.getConnection(username, password));
+        } finally {
+            RequestTiming.addQueue(System.nanoTime() - start);
+        }
+    }
+
+    // fermeture du pool à l'arrêt du contexte (méthode close() de HikariDataSource masquée par l'enveloppe)
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) closeable.close();
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = identity(proxy, method, args);
+                    if (result != null) return result;
+                    result = invoke(connection, method, args);
+                    return result instanceof Statement statement && method.getReturnType().isInterface()
+                            ? timed(statement, method.getReturnType()) : result;
+                });
+    }
+
+    // Statement, PreparedStatement ou CallableStatement selon la méthode de création
+    private static Object timed(Statement statement, Class<?> type) {
+        return Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Object result = identity(proxy, method, args);
+                    if (result != null) return result;
+                    if (method.getName().equals("getResultSet")) return counted((ResultSet) invoke(statement, method, args));
+                    if (!method.getName().startsWith("execute")) return invoke(statement, method, args);
+                    long start = System.nanoTime();
+                    try {
+                        result = invoke(statement, method, args);
+                    } finally {
+                        RequestTiming.addStatement(System.nanoTime() - start);
+                    }
+                    return result instanceof ResultSet rs ? counted(rs) : result;
+                });
+    }
+
+    private static ResultSet counted(ResultSet resultSet) {
+        if (resultSet == null) return null;
+        return (ResultSet) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object result = identity(proxy, method, args);
+                    if (result != null) return result;
+                    result = invoke(resultSet, method, args);
+                    if (method.getName().equals("next") && Boolean.TRUE.equals(result)) RequestTiming.addRow();
+                    return result;
+                });
+    }
+
+    // equals/hashCode par identité du proxy (Hibernate range les statements dans des HashMap)
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) return proxy == args[0];
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) return System.identityHashCode(proxy);
+        return null;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
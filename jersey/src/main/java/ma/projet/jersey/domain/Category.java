@@ -2,17 +2,23 @@ package ma.projet.jersey.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Table(name = "category", indexes = {
-        @Index(name = "idx_category_code", columnList = "code", unique = true)
+        @Index(name = "idx_category_code", columnList = "code", unique = true),
+        @Index(name = "idx_category_updated_id", columnList = "updated_at, id")
 })
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 32, unique = true)
@@ -26,6 +32,11 @@ public class Category {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt = Instant.now();
 
+    // verrouillage optimiste: UPDATE/DELETE ... WHERE id = ? AND version = ?, ETag des ressources
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "category", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<Item> items = new ArrayList<>();
 
@@ -43,6 +54,8 @@ public class Category {
     public void setName(String name) { this.name = name; }
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     public List<Item> getItems() { return items; }
     public void setItems(List<Item> items) { this.items = items; }
 }
@@ -1,7 +1,26 @@
 package ma.projet.jersey.repository;
 
 import ma.projet.jersey.domain.Category;
+import ma.projet.jersey.web.dto.CategoryDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    Slice<Category> findSliceBy(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(value = "select new ma.projet.jersey.web.dto.CategoryDto(c.id, c.code, c.name, c.version, c.updatedAt) from Category c",
+           countQuery = "select count(c) from Category c")
+    Page<CategoryDto> findAllDto(Pageable pageable);
+
+    // Validateurs HTTP (ETag / Last-Modified): version lue sans charger l'entité
+    @Query("select new ma.projet.jersey.repository.EntityVersion(c.version, c.updatedAt) from Category c where c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,71 @@
+package ma.projet.jersey.repository;
+
+import ma.projet.jersey.web.dto.CategoryDto;
+import ma.projet.jersey.web.dto.ChangeDto;
+import ma.projet.jersey.web.dto.ItemDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lignes du flux de changements (GET /items/changes, GET /categories/changes): lignes modifiées après la position
+ * (updated_at, id) et tombstones (item_tombstone / category_tombstone, écrites par trigger à chaque DELETE) après
+ * (deleted_at, id), fusionnées dans l'ordre (instant, id). Chaque branche lit au plus limit lignes par son index
+ * (colonne d'instant, id) avant l'union, sans OFFSET. before: borne haute exclue de l'instant.
+ */
+@Repository
+public class ChangeRows {
+    private static final String ITEMS = """
+            (select id, updated_at, false, sku, name, price, stock, category_id, description
+             from item where (updated_at, id) > (?, ?) and updated_at < ? order by updated_at, id limit ?)
+            union all
+            (select id, deleted_at, true, null, null, null, null, null, null
+             from item_tombstone where (deleted_at, id) > (?, ?) and deleted_at < ? order by deleted_at, id limit ?)
+            order by 2, 1
+            limit ?""";
+
+    private static final String CATEGORIES = """
+            (select id, updated_at, false, code, name
+             from category where (updated_at, id) > (?, ?) and updated_at < ? order by updated_at, id limit ?)
+            union all
+            (select id, deleted_at, true, null, null
+             from category_tombstone where (deleted_at, id) > (?, ?) and deleted_at < ? order by deleted_at, id limit ?)
+            order by 2, 1
+            limit ?""";
+
+    private static final RowMapper<ChangeDto<ItemDto>> ITEM = (rs, rowNum) -> {
+        long id = rs.getLong(1);
+        LocalDateTime at = rs.getObject(2, LocalDateTime.class);
+        if (rs.getBoolean(3)) return new ChangeDto<>(id, at, null);
+        return new ChangeDto<>(id, at, new ItemDto(id, rs.getString(4), rs.getString(5), rs.getBigDecimal(6),
+                rs.getInt(7), rs.getObject(8, Long.class), rs.getString(9)));
+    };
+
+    private static final RowMapper<ChangeDto<CategoryDto>> CATEGORY = (rs, rowNum) -> {
+        long id = rs.getLong(1);
+        LocalDateTime at = rs.getObject(2, LocalDateTime.class);
+        if (rs.getBoolean(3)) return new ChangeDto<>(id, at, null);
+        return new ChangeDto<>(id, at, new CategoryDto(id, rs.getString(4), rs.getString(5)));
+    };
+
+    private final JdbcTemplate jdbc;
+
+    ChangeRows(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<ChangeDto<ItemDto>> items(LocalDateTime afterAt, long afterId, LocalDateTime before, int limit) {
+        return jdbc.query(ITEMS, ITEM, args(afterAt, afterId, before, limit));
+    }
+
+    public List<ChangeDto<CategoryDto>> categories(LocalDateTime afterAt, long afterId, LocalDateTime before, int limit) {
+        return jdbc.query(CATEGORIES, CATEGORY, args(afterAt, afterId, before, limit));
+    }
+
+    private static Object[] args(LocalDateTime afterAt, long afterId, LocalDateTime before, int limit) {
+        return new Object[]{afterAt, afterId, before, limit, afterAt, afterId, before, limit, limit};
+    }
+}
@@ -0,0 +1,71 @@
+package ma.projet.jersey.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache des COUNT d'items (global et par catégorie) pour éviter la requête count(*) de chaque page.
+ * Invalidé par les écritures sur les items, à nouveau après leur commit (un COUNT relu avant le commit reste
+ * sinon en cache); le TTL borne la dérive due aux écritures d'autres instances.
+ */
+@Component
+public class ItemCountCache {
+    private static final long ALL = 0L;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<Long, Entry> counts = new ConcurrentHashMap<>();
+    // incrémentée à chaque invalidation: un COUNT commencé avant n'est pas stocké
+    private final AtomicLong generation = new AtomicLong();
+
+    private record Entry(long count, long loadedAt) {}
+
+    public ItemCountCache(ItemRepository itemRepository,
+                          @Value("${app.items.count-cache.enabled:false}") boolean enabled,
+                          @Value("${app.items.count-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /** categoryId null = tous les items. */
+    public long count(Long categoryId) {
+        long key = categoryId != null ? categoryId : ALL;
+        long now = System.currentTimeMillis();
+        Entry e = counts.get(key);
+        if (e == null || now - e.loadedAt() > ttlMillis) {
+            long gen = generation.get();
+            long n = categoryId != null ? itemRepository.countByCategory_Id(categoryId) : itemRepository.count();
+            e = new Entry(n, now);
+            if (generation.get() == gen) counts.put(key, e);
+        }
+        return e.count();
+    }
+
+    /** Invalide le compteur de la catégorie et le compteur global, maintenant et après le commit en cours. */
+    public void invalidate(Long categoryId) {
+        evict(categoryId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(categoryId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long categoryId) {
+        generation.incrementAndGet();
+        if (categoryId != null) counts.remove(categoryId);
+        counts.remove(ALL);
+    }
+}
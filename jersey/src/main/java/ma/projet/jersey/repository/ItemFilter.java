@@ -0,0 +1,41 @@
+package ma.projet.jersey.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import ma.projet.jersey.domain.Item;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtres serveur de la liste d'items, combinés en un seul WHERE (null / false = critère absent).
+ * Chaque combinaison est servie par un index de V4__item_search_indexes.sql (catégorie, prix, en stock, date).
+ */
+public record ItemFilter(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock,
+                         Instant updatedSince) {
+
+    /** true si un critère autre que la catégorie est présent. */
+    public boolean isFiltered() {
+        return minPrice != null || maxPrice != null || inStock || updatedSince != null;
+    }
+
+    public Specification<Item> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (categoryId != null) predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+            if (minPrice != null) predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            if (maxPrice != null) predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            // littéral et non paramètre lié: PostgreSQL peut alors prouver le prédicat des index partiels "stock > 0"
+            if (inStock) predicates.add(cb.greaterThan(root.get("stock"), cb.literal(0)));
+            if (updatedSince != null) predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), updatedSince));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /** Mode keyset: id > afterId (tri par id). */
+    public static Specification<Item> idAfter(long afterId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+}
@@ -0,0 +1,48 @@
+package ma.projet.jersey.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lignes d'items lues en JDBC pour l'écriture JSON directe (ItemJsonWriter): colonnes dans l'ordre d'ItemDto
+ * (id, sku, name, price, stock, category_id, description) puis version et updated_at (validateurs), chaque ligne passée au handler pendant le parcours
+ * du ResultSet, sans entité ni liste intermédiaire.
+ */
+@Repository
+public class ItemRows {
+    private static final String SELECT = "select id, sku, name, price, stock, category_id, description, version, updated_at from item";
+
+    private final JdbcTemplate jdbc;
+
+    ItemRows(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Au plus limit lignes. categoryId: filtre (null = tous). afterId: mode keyset (id > afterId, tri par id,
+     * sans OFFSET); sinon pagination par numéro de page, triée par id comme les requêtes JPA des listes.
+     */
+    public void read(Long categoryId, Long afterId, long offset, int limit, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>(4);
+        String where = " where ";
+        if (categoryId != null) {
+            sql.append(where).append("category_id = ?");
+            args.add(categoryId);
+            where = " and ";
+        }
+        if (afterId != null) {
+            sql.append(where).append("id > ?");
+            args.add(afterId);
+        }
+        sql.append(" order by id");
+        sql.append(" limit ? offset ?");
+        args.add(limit);
+        args.add(afterId != null ? 0 : offset);
+        jdbc.query(sql.toString(), handler, args.toArray());
+    }
+}
@@ -0,0 +1,60 @@
+package ma.projet.jersey.repository;
+
+import ma.projet.jersey.web.dto.ItemHitDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Recherche texte de GET /items/search?q=: chaque mot de q est cherché en préfixe (mot:*) dans search_vector
+ * (colonne générée, name poids A, description poids B, configuration 'simple', index GIN), q entier en sous-chaîne
+ * du sku (ILIKE, index trigramme). Classement ts_rank, +1 si le sku correspond, départagé par id.
+ * Toutes les correspondances de l'index sont classées dans la CTE hits, qui ne garde que les MAX_RESULTS meilleures
+ * (tri top-N en mémoire): le classement est exact, la pagination limitée à ces résultats (annoncé par maxResults
+ * dans la réponse). Le coût croît avec le nombre de correspondances (ts_rank par ligne), pas avec la profondeur de
+ * page. Page sans COUNT (size+1 lignes lues), sans la colonne description.
+ */
+@Repository
+public class ItemTextSearch {
+    public static final int MAX_RESULTS = 1000;
+
+    // q passé deux fois: requête tsquery construite des lexèmes de q (quote_literal, donc sans erreur de syntaxe
+    // quels que soient les caractères saisis), motif ILIKE avec ! % _ échappés par !
+    private static final String SQL = """
+            with s as (
+                select to_tsquery('simple', coalesce((select string_agg(quote_literal(lexeme) || ':*', ' & ')
+                                                      from unnest(to_tsvector('simple', ?))), '')) as query,
+                       '%' || replace(replace(replace(?, '!', '!!'), '%', '!%'), '_', '!_') || '%' as sku
+            ), hits as (
+                select i.id, i.sku, i.name, i.price, i.stock, i.category_id,
+                       ts_rank(i.search_vector, s.query) + case when i.sku ilike s.sku escape '!' then 1 else 0 end as rank
+                from s join item i on i.search_vector @@ s.query or i.sku ilike s.sku escape '!'
+                order by rank desc, i.id
+                limit ?
+            )
+            select id, sku, name, price, stock, category_id, rank
+            from hits
+            order by rank desc, id
+            limit ? offset ?""";
+
+    private static final RowMapper<ItemHitDto> MAPPER = (rs, rowNum) -> new ItemHitDto(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getInt(5),
+            rs.getObject(6, Long.class), rs.getFloat(7));
+
+    private final JdbcTemplate jdbc;
+
+    ItemTextSearch(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Slice<ItemHitDto> search(String q, Pageable pageable) {
+        List<ItemHitDto> rows = jdbc.query(SQL, MAPPER, q, q, MAX_RESULTS, pageable.getPageSize() + 1, pageable.getOffset());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
@@ -0,0 +1,17 @@
+package ma.projet.jersey.web;
+
+/**
+ * Types produits par les ressources: le JSON d'abord (qs=1 implicite), les formats binaires (qs=0.9) seulement
+ * si le client les demande explicitement dans Accept. Protobuf limité aux lectures (items, catégories, pages).
+ */
+final class BinaryMediaTypes {
+    static final String SMILE = "application/x-jackson-smile";
+    static final String CBOR = "application/cbor";
+    static final String PROTOBUF = ProtobufWriter.MEDIA_TYPE;
+
+    static final String SMILE_QS = SMILE + ";qs=0.9";
+    static final String CBOR_QS = CBOR + ";qs=0.9";
+    static final String PROTOBUF_QS = PROTOBUF + ";qs=0.9";
+
+    private BinaryMediaTypes() {}
+}
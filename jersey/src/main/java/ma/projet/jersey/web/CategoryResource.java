@@ -3,52 +3,114 @@ package ma.projet.jersey.web;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import ma.projet.jersey.domain.Category;
 import ma.projet.jersey.domain.Item;
 import ma.projet.jersey.repository.CategoryRepository;
+import ma.projet.jersey.repository.EntityVersion;
+import ma.projet.jersey.repository.FieldProjection;
+import ma.projet.jersey.repository.ItemCountCache;
 import ma.projet.jersey.repository.ItemRepository;
 import ma.projet.jersey.web.dto.CategoryDto;
+import ma.projet.jersey.web.dto.ChangesResponse;
 import ma.projet.jersey.web.dto.ItemDto;
 import ma.projet.jersey.web.dto.PageResponse;
 import ma.projet.jersey.web.mapper.DtoMappers;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Component
 @Path("/categories")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS})
 @Consumes(MediaType.APPLICATION_JSON)
 public class CategoryResource {
+    // pages OFFSET triées par id: un UPDATE (nouvelle version de ligne) ne réordonne pas les pages en cache
+    private static final Sort BY_ID = Sort.by("id");
+
     private final CategoryRepository categoryRepository;
     private final ItemRepository itemRepository;
+    private final ItemCountCache countCache;
+    private final ResponseCache responseCache;
+    private final FieldSelection fieldSelection;
+    private final ChangeFeed changeFeed;
+
+    @Value("${app.dto-projection.enabled:false}")
+    private boolean dtoProjectionEnabled;
 
-    public CategoryResource(CategoryRepository categoryRepository, ItemRepository itemRepository) {
+    public CategoryResource(CategoryRepository categoryRepository, ItemRepository itemRepository, ItemCountCache countCache,
+                            ResponseCache responseCache, FieldSelection fieldSelection, ChangeFeed changeFeed) {
         this.categoryRepository = categoryRepository;
         this.itemRepository = itemRepository;
+        this.countCache = countCache;
+        this.responseCache = responseCache;
+        this.fieldSelection = fieldSelection;
+        this.changeFeed = changeFeed;
     }
 
     @GET
-    public PageResponse<CategoryDto> list(@QueryParam("page") @DefaultValue("0") int page,
-                               @QueryParam("size") @DefaultValue("20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS, BinaryMediaTypes.PROTOBUF_QS})
+    public Response list(@QueryParam("page") @DefaultValue("0") int page,
+                         @QueryParam("size") @DefaultValue("20") int size,
+                         @QueryParam("count") @DefaultValue("true") boolean count,
+                         @QueryParam("fields") String fields,
+                         @Context Request request, @Context UriInfo uriInfo, @Context HttpHeaders headers) {
+        PageResponse<?> body = fields != null
+                ? fieldSelection.page(FieldProjection.Table.CATEGORY, fields, null, page, size, null, count, categoryRepository::count)
+                : page(page, size, count);
+        HttpValidators validators = HttpValidators.of(body, uriInfo, headers);
+        Response notModified = validators.notModified(request);
+        return notModified != null ? notModified : validators.ok(body);
+    }
+
+    private PageResponse<CategoryDto> page(int page, int size, boolean count) {
+        Pageable pageable = PageRequest.of(page, size, BY_ID);
+        if (!count) return PageResponse.from(categoryRepository.findSliceBy(pageable), DtoMappers::toDto);
+        if (dtoProjectionEnabled) return PageResponse.from(categoryRepository.findAllDto(pageable), Function.identity());
         Page<Category> p = categoryRepository.findAll(pageable);
         return PageResponse.from(p, DtoMappers::toDto);
     }
 
+    // synchronisation incrémentale: modifications et suppressions après ?since= (nextCursor de la réponse précédente)
+    @GET
+    @Path("/changes")
+    public ChangesResponse<CategoryDto> changes(@QueryParam("since") String since,
+                                                @QueryParam("limit") @DefaultValue("500") int limit) {
+        return changeFeed.categories(since, limit);
+    }
+
     @GET
     @Path("/{id}")
-    public Response get(@PathParam("id") Long id) {
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS, BinaryMediaTypes.PROTOBUF_QS})
+    public Response get(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                        @Context Request request, @Context HttpHeaders headers) {
+        Optional<EntityVersion> version = categoryRepository.findVersionById(id);
+        if (version.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
+        HttpValidators validators = HttpValidators.of(id, version.get(), headers);
+        Response notModified = validators.notModified(request);
+        if (notModified != null) return notModified;
+        if (fields != null) {
+            return fieldSelection.one(FieldProjection.Table.CATEGORY, fields, id)
+                    .map(validators::ok)
+                    .orElse(Response.status(Response.Status.NOT_FOUND).build());
+        }
         return categoryRepository.findById(id)
-                .map(c -> Response.ok(DtoMappers.toDto(c)))
-                .orElse(Response.status(Response.Status.NOT_FOUND))
-                .build();
+                .map(c -> validators.ok(DtoMappers.toDto(c)))
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @POST
@@ -58,40 +120,93 @@ public class CategoryResource {
         c.setCode(dto.getCode());
         c.setName(dto.getName());
         Category saved = categoryRepository.save(c);
+        responseCache.categoryCreated();
         return Response.created(URI.create("/categories/" + saved.getId())).entity(DtoMappers.toDto(saved)).build();
     }
 
     @PUT
     @Path("/{id}")
     @Transactional
-    public Response update(@PathParam("id") Long id, @Valid CategoryDto dto) {
+    public Response update(@PathParam("id") Long id, @Valid CategoryDto dto, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                           @Context HttpHeaders headers) {
         Optional<Category> opt = categoryRepository.findById(id);
         if (opt.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
         Category c = opt.get();
+        // catégories: peu d'écritures, chemin JPA (le flush vérifie aussi la version)
+        if (!matches(c, ifMatch)) return Response.status(Response.Status.PRECONDITION_FAILED).build();
         c.setCode(dto.getCode());
         c.setName(dto.getName());
-        Category saved = categoryRepository.save(c);
-        return Response.ok(DtoMappers.toDto(saved)).build();
+        Category saved = categoryRepository.saveAndFlush(c);
+        responseCache.categoryUpdated(id);
+        return Response.ok(DtoMappers.toDto(saved)).tag(HttpValidators.etag(id, saved.getVersion(), headers)).build();
     }
 
     @DELETE
     @Path("/{id}")
     @Transactional
-    public Response delete(@PathParam("id") Long id) {
-        if (!categoryRepository.existsById(id)) return Response.status(Response.Status.NOT_FOUND).build();
-        categoryRepository.deleteById(id);
+    public Response delete(@PathParam("id") Long id, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        Optional<Category> opt = categoryRepository.findById(id);
+        if (opt.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
+        if (!matches(opt.get(), ifMatch)) return Response.status(Response.Status.PRECONDITION_FAILED).build();
+        categoryRepository.delete(opt.get());
+        countCache.invalidate(id);
+        responseCache.categoryDeleted(id);
         return Response.noContent().build();
     }
 
+    private static boolean matches(Category c, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) return true;
+        Long version = HttpValidators.ifMatchVersion(c.getId(), ifMatch);
+        return version != null && version == c.getVersion();
+    }
+
     // relation: /categories/{id}/items
     @GET
     @Path("/{id}/items")
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS, BinaryMediaTypes.PROTOBUF_QS})
     public Response itemsOfCategory(@PathParam("id") Long id,
                                     @QueryParam("page") @DefaultValue("0") int page,
-                                    @QueryParam("size") @DefaultValue("20") int size) {
-        if (!categoryRepository.existsById(id)) return Response.status(Response.Status.NOT_FOUND).build();
-        Pageable pageable = PageRequest.of(page, size);
+                                    @QueryParam("size") @DefaultValue("20") int size,
+                                    @QueryParam("after") String after,
+                                    @QueryParam("count") @DefaultValue("true") boolean count,
+                                    @QueryParam("fields") String fields,
+                                    @Context Request request, @Context UriInfo uriInfo,
+                                    @Context HttpHeaders headers) {
+        // findById plutôt que existsById: servi par le cache L2 des catégories
+        if (categoryRepository.findById(id).isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
+        PageResponse<?> body = itemsPage(id, page, size, after, count, fields);
+        HttpValidators validators = HttpValidators.of(body, uriInfo, headers);
+        Response notModified = validators.notModified(request);
+        return notModified != null ? notModified : validators.ok(body);
+    }
+
+    private PageResponse<?> itemsPage(Long id, int page, int size, String after, boolean count, String fields) {
+        if (fields != null) {
+            return fieldSelection.page(FieldProjection.Table.ITEM, fields, id, page, size, after, count,
+                    () -> countCache.isEnabled() ? countCache.count(id) : itemRepository.countByCategory_Id(id));
+        }
+        if (after != null) {
+            Slice<Item> s = itemRepository.findByCategory_IdAndIdGreaterThanOrderByIdAsc(
+                    id, KeysetCursor.decode(after), PageRequest.of(0, size));
+            return PageResponse.from(s, DtoMappers::toDto, i -> KeysetCursor.encode(i.getId()));
+        }
+        Pageable pageable = PageRequest.of(page, size, BY_ID);
+        if (dtoProjectionEnabled) {
+            if (count && !countCache.isEnabled()) {
+                return PageResponse.from(itemRepository.findDtoByCategoryId(id, pageable), Function.identity());
+            }
+            Slice<ItemDto> s = itemRepository.findDtoSliceByCategoryId(id, pageable);
+            if (!count) return PageResponse.from(s, Function.identity());
+            Page<ItemDto> p = new PageImpl<>(s.getContent(), pageable, countCache.count(id));
+            return PageResponse.from(p, Function.identity());
+        }
+        if (!count || countCache.isEnabled()) {
+            Slice<Item> s = itemRepository.findSliceByCategory_Id(id, pageable);
+            if (!count) return PageResponse.from(s, DtoMappers::toDto);
+            Page<Item> items = new PageImpl<>(s.getContent(), pageable, countCache.count(id));
+            return PageResponse.from(items, DtoMappers::toDto);
+        }
         Page<Item> items = itemRepository.findByCategory_Id(id, pageable);
-        return Response.ok(PageResponse.from(items, DtoMappers::toDto)).build();
+        return PageResponse.from(items, DtoMappers::toDto);
     }
 }
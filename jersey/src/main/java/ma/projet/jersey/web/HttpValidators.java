@@ -0,0 +1,160 @@
+package ma.projet.jersey.web;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import ma.projet.jersey.repository.EntityVersion;
+import ma.projet.jersey.web.dto.PageResponse;
+import ma.projet.jersey.web.dto.Versioned;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Requêtes conditionnelles: GET (If-None-Match / If-Modified-Since -> 304) et PUT/DELETE (If-Match -> 412).
+ * ETag fort: "<id>-<version>" pour une ressource (@Version), "<empreinte des lignes>-<hash query>" pour une liste,
+ * suffixé du format négocié hors JSON ("-x-jackson-smile", "-cbor", "-x-protobuf", même choix que Jersey: q du client
+ * puis qs des @Produces): deux représentations d'une même version n'ont pas le même ETag fort.
+ * If-Match ne compare que la version, quel que soit le suffixe.
+ * Ressource: évalué avant le chargement de l'entité (requête de version), en cas de 304 ni lecture complète ni
+ * sérialisation. Liste: évalué sur les lignes déjà chargées pour la page (PageVersion), avant la sérialisation,
+ * sans requête supplémentaire; ETag et Last-Modified toujours émis, 304 sur If-None-Match seulement.
+ */
+final class HttpValidators {
+    // JSON d'abord (qs=1), formats binaires à qs=0.9 comme dans les @Produces des ressources
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON_TYPE,
+            MediaType.valueOf(BinaryMediaTypes.SMILE_QS), MediaType.valueOf(BinaryMediaTypes.CBOR_QS),
+            MediaType.valueOf(BinaryMediaTypes.PROTOBUF_QS));
+
+    private final EntityTag etag;
+    private final Date lastModified;
+    // If-Modified-Since évalué: ressources seulement, et sans If-None-Match (RFC 9110, Jersey l'évaluerait encore
+    // après un ETag égal)
+    private final boolean ifModifiedSince;
+
+    private HttpValidators(String etag, Instant lastModified, boolean ifModifiedSince) {
+        this.etag = new EntityTag(etag);
+        this.lastModified = lastModified != null ? Date.from(lastModified) : null;
+        this.ifModifiedSince = ifModifiedSince && this.lastModified != null;
+    }
+
+    static HttpValidators of(Long id, EntityVersion version, HttpHeaders headers) {
+        return new HttpValidators(id + "-" + version.version() + format(headers), version.lastModified(),
+                headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) == null);
+    }
+
+    static EntityTag etag(Long id, long version, HttpHeaders headers) {
+        return new EntityTag(id + "-" + version + format(headers));
+    }
+
+    /**
+     * Version attendue par If-Match ("<id>-<version>[-<format>]", ETag faible accepté), ou null si l'en-tête
+     * ne désigne pas une version de cette ressource (-> 412). "*" est traité par l'appelant.
+     */
+    static Long ifMatchVersion(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) return null;
+        String prefix = id + "-";
+        tag = tag.substring(1, tag.length() - 1);
+        if (!tag.startsWith(prefix)) return null;
+        int end = tag.indexOf('-', prefix.length());
+        try {
+            return Long.valueOf(tag.substring(prefix.length(), end < 0 ? tag.length() : end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static HttpValidators of(PageResponse<?> page, UriInfo uriInfo, HttpHeaders headers) {
+        PageVersion version = new PageVersion();
+        for (Object row : page.getContent()) {
+            Versioned v = (Versioned) row;
+            version.row(v.getId(), v.getVersion(), v.getUpdatedAt());
+        }
+        version.page(page.getPage(), page.getSize(), page.getTotalElements(), page.isHasNext(), page.getNextCursor());
+        return of(version, uriInfo, headers);
+    }
+
+    /**
+     * Last-Modified (max(updated_at) de la page) est seulement informatif: updated_at est posé avant le commit, une
+     * ligne plus ancienne validée après coup ne le ferait pas avancer. If-Modified-Since n'obtient donc pas de 304.
+     */
+    static HttpValidators of(PageVersion version, UriInfo uriInfo, HttpHeaders headers) {
+        String query = uriInfo.getRequestUri().getRawQuery();
+        return new HttpValidators(Long.toHexString(version.hash) + "-" + Integer.toHexString(query != null ? query.hashCode() : 0)
+                + format(headers), version.lastModified, false);
+    }
+
+    /** Empreinte d'une page: (id, version) de chaque ligne dans l'ordre, puis les champs de page; max(updated_at). */
+    static final class PageVersion {
+        private long hash = 1;
+        private Instant lastModified;
+
+        void row(long id, long version, Instant updatedAt) {
+            mix(id);
+            mix(version);
+            if (updatedAt != null && (lastModified == null || updatedAt.isAfter(lastModified))) lastModified = updatedAt;
+        }
+
+        void page(int page, int size, long totalElements, boolean hasNext, String nextCursor) {
+            mix(page);
+            mix(size);
+            mix(totalElements);
+            mix(hasNext ? 1 : 0);
+            mix(nextCursor != null ? nextCursor.hashCode() : 0);
+        }
+
+        private void mix(long value) {
+            hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+    }
+
+    // suffixe du format négocié: "" pour le JSON (ou aucun format acceptable: la ressource répondra 406)
+    private static String format(HttpHeaders headers) {
+        MediaType best = null;
+        double bestQ = 0, bestQs = 0;
+        for (MediaType accepted : headers.getAcceptableMediaTypes()) {
+            double q = quality(accepted, "q");
+            for (MediaType f : FORMATS) {
+                double qs = quality(f, "qs");
+                if (q > 0 && accepted.isCompatible(f) && (q > bestQ || q == bestQ && qs > bestQs)) {
+                    best = f;
+                    bestQ = q;
+                    bestQs = qs;
+                }
+            }
+        }
+        return best == null || best == FORMATS.get(0) ? "" : "-" + best.getSubtype();
+    }
+
+    private static double quality(MediaType type, String param) {
+        String value = type.getParameters().get(param);
+        try {
+            return value != null ? Double.parseDouble(value) : 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    // 304 si la version connue du client est toujours valide, sinon null
+    Response notModified(Request request) {
+        Response.ResponseBuilder rb = ifModifiedSince
+                ? request.evaluatePreconditions(lastModified, etag)
+                : request.evaluatePreconditions(etag);
+        return rb != null ? rb.tag(etag).build() : null;
+    }
+
+    Response ok(Object entity) {
+        return Response.ok(entity).tag(etag).lastModified(lastModified).build();
+    }
+
+    Response ok(Object entity, MediaType type) {
+        return Response.ok(entity, type).tag(etag).lastModified(lastModified).build();
+    }
+}
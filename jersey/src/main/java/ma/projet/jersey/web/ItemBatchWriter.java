@@ -0,0 +1,150 @@
+package ma.projet.jersey.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.WebApplicationException;
+import ma.projet.jersey.domain.Category;
+import ma.projet.jersey.domain.Item;
+import ma.projet.jersey.repository.CategoryRepository;
+import ma.projet.jersey.repository.ItemCountCache;
+import ma.projet.jersey.repository.ItemRepository;
+import ma.projet.jersey.web.dto.BatchResult;
+import ma.projet.jersey.web.dto.ItemDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Écritures en lot de /items/batch: catégories et SKU résolus en une requête chacun,
+ * puis une seule transaction dont le flush part en batchs JDBC (hibernate.jdbc.batch_size).
+ */
+@Component
+class ItemBatchWriter {
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+    private final ItemCountCache countCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.items.batch.max-rows:1000}")
+    private int maxRows;
+
+    ItemBatchWriter(ItemRepository itemRepository, CategoryRepository categoryRepository, ItemCountCache countCache,
+                    Validator validator, ObjectMapper objectMapper) {
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+        this.countCache = countCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    List<ItemDto> readNdjson(InputStream body) throws IOException {
+        List<ItemDto> dtos = new ArrayList<>();
+        try (MappingIterator<ItemDto> it = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            while (it.hasNextValue()) {
+                dtos.add(it.nextValue());
+                checkSize(dtos);
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("invalid NDJSON body", e);
+        }
+        return dtos;
+    }
+
+    @Transactional
+    public BatchResult create(List<ItemDto> dtos) {
+        checkSize(dtos);
+        BatchResult result = new BatchResult(dtos.size());
+        Map<Long, Category> categories = categoriesOf(dtos);
+        Set<String> takenSkus = new HashSet<>(existingSkus(dtos));
+        List<Item> items = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int idx = 0; idx < dtos.size(); idx++) {
+            ItemDto dto = dtos.get(idx);
+            String error = validate(dto);
+            if (error != null) { result.fail(idx, 400, error); continue; }
+            Category category = categories.get(dto.getCategoryId());
+            if (category == null) { result.fail(idx, 400, "unknown categoryId " + dto.getCategoryId()); continue; }
+            if (!takenSkus.add(dto.getSku())) { result.fail(idx, 409, "duplicate sku " + dto.getSku()); continue; }
+            Item i = new Item();
+            ItemResource.copy(dto, i, category);
+            items.add(i);
+            indexes.add(idx);
+        }
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+        for (int k = 0; k < items.size(); k++) {
+            Item i = items.get(k);
+            result.ok(indexes.get(k), 201, i.getId());
+            countCache.invalidate(i.getCategory().getId());
+        }
+        return result;
+    }
+
+    @Transactional
+    public BatchResult update(List<ItemDto> dtos) {
+        checkSize(dtos);
+        BatchResult result = new BatchResult(dtos.size());
+        Map<Long, Category> categories = categoriesOf(dtos);
+        Set<Long> ids = dtos.stream().filter(Objects::nonNull).map(ItemDto::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        Set<String> takenSkus = new HashSet<>(existingSkus(dtos));
+        Set<Long> seen = new HashSet<>();
+        for (int idx = 0; idx < dtos.size(); idx++) {
+            ItemDto dto = dtos.get(idx);
+            String error = validate(dto);
+            if (error == null && dto.getId() == null) error = "id is required";
+            if (error != null) { result.fail(idx, 400, error); continue; }
+            Item i = items.get(dto.getId());
+            if (i == null) { result.fail(idx, 404, "unknown id " + dto.getId()); continue; }
+            if (!seen.add(dto.getId())) { result.fail(idx, 409, "duplicate id " + dto.getId()); continue; }
+            Category category = categories.get(dto.getCategoryId());
+            if (category == null) { result.fail(idx, 400, "unknown categoryId " + dto.getCategoryId()); continue; }
+            // un item peut garder son SKU; tout autre SKU déjà pris (en base ou dans le lot) est un conflit
+            if (!dto.getSku().equals(i.getSku()) && !takenSkus.add(dto.getSku())) {
+                result.fail(idx, 409, "duplicate sku " + dto.getSku());
+                continue;
+            }
+            Long previousCategoryId = i.getCategory().getId();
+            ItemResource.copy(dto, i, category);
+            if (!previousCategoryId.equals(dto.getCategoryId())) {
+                countCache.invalidate(previousCategoryId);
+                countCache.invalidate(dto.getCategoryId());
+            }
+            result.ok(idx, 200, i.getId());
+        }
+        itemRepository.flush();
+        return result;
+    }
+
+    private void checkSize(List<ItemDto> dtos) {
+        if (dtos.size() > maxRows) throw new WebApplicationException("batch exceeds " + maxRows + " rows", 413);
+    }
+
+    private String validate(ItemDto dto) {
+        if (dto == null) return "empty row";
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) return null;
+        return violations.stream().map(v -> v.getPropertyPath() + " " + v.getMessage()).sorted().collect(Collectors.joining(", "));
+    }
+
+    private Map<Long, Category> categoriesOf(List<ItemDto> dtos) {
+        Set<Long> ids = dtos.stream().filter(Objects::nonNull).map(ItemDto::getCategoryId).filter(Objects::nonNull).collect(Collectors.toSet());
+        return categoryRepository.findAllById(ids).stream().collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    private List<String> existingSkus(List<ItemDto> dtos) {
+        Set<String> skus = dtos.stream().filter(Objects::nonNull).map(ItemDto::getSku).filter(Objects::nonNull).collect(Collectors.toSet());
+        return skus.isEmpty() ? List.of() : itemRepository.findExistingSkus(skus);
+    }
+}
@@ -0,0 +1,54 @@
+package ma.projet.jersey.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.projet.jersey.repository.ItemRepository;
+import ma.projet.jersey.web.dto.ItemDto;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export NDJSON du catalogue (GET /items/export): une ligne ItemDto par item, écrite au fil du curseur.
+ * Pas de page ni de COUNT; la mémoire ne dépend que du fetch size et du buffer de réponse.
+ */
+@Component
+class ItemExporter {
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    ItemExporter(ItemRepository itemRepository, ObjectMapper objectMapper, PlatformTransactionManager txManager) {
+        this.itemRepository = itemRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // appelé après le retour de la méthode web (écriture de la réponse): transaction ouverte ici
+    void writeNdjson(OutputStream out) throws IOException {
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<ItemDto> rows = itemRepository.streamAllDto();
+                     JsonGenerator gen = objectMapper.createGenerator(out)) {
+                    gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    gen.setRootValueSeparator(null);
+                    for (Iterator<ItemDto> it = rows.iterator(); it.hasNext(); ) {
+                        gen.writeObject(it.next());
+                        gen.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
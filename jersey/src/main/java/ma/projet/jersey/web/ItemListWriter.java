@@ -0,0 +1,131 @@
+package ma.projet.jersey.web;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import ma.projet.jersey.repository.ItemCountCache;
+import ma.projet.jersey.repository.ItemRepository;
+import ma.projet.jersey.repository.ItemRows;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * app.items.fast-json.enabled: GET /items écrit du ResultSet vers la réponse par ItemJsonWriter, sans entités,
+ * DtoMappers, PageResponse ni Jackson. Mêmes modes et mêmes valeurs que la liste standard: page (totaux
+ * calculés comme PageableExecutionUtils / PageImpl, cache de COUNT compris), count=false (-1, hasNext par la
+ * ligne size+1) et keyset (after, nextCursor). Lignes et totaux lus dans la méthode de ressource, page rendue en
+ * tampon avant la réponse: une erreur SQL reste une réponse d'erreur (500), jamais un 200 tronqué.
+ */
+@Component
+class ItemListWriter {
+    private static final List<MediaType> BINARY = List.of(MediaType.parseMediaType(BinaryMediaTypes.SMILE),
+            MediaType.parseMediaType(BinaryMediaTypes.CBOR), MediaType.parseMediaType(BinaryMediaTypes.PROTOBUF));
+
+    private final ItemRows rows;
+    private final ItemRepository itemRepository;
+    private final ItemCountCache countCache;
+
+    ItemListWriter(ItemRows rows, ItemRepository itemRepository, ItemCountCache countCache) {
+        this.rows = rows;
+        this.itemRepository = itemRepository;
+        this.countCache = countCache;
+    }
+
+    /** Réponse JSON attendue: Accept absent, ou compatible avec application/json sans format binaire demandé. */
+    static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) return true;
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+            boolean json = false;
+            for (MediaType type : types) {
+                if (type.getQualityValue() == 0) continue;
+                if (BINARY.stream().anyMatch(type::equalsTypeAndSubtype)) return false;
+                json |= type.includes(MediaType.APPLICATION_JSON);
+            }
+            return json;
+        } catch (InvalidMediaTypeException e) {
+            return false; // réponse d'erreur laissée à la négociation standard
+        }
+    }
+
+    // paramètres validés, lignes lues et page rendue ici (400 / 500 comme la liste standard), validateurs compris;
+    // le StreamingOutput ne fait que copier le tampon
+    Response list(Long categoryId, int page, int size, String after, boolean count,
+                  Request request, UriInfo uriInfo, HttpHeaders headers) {
+        Long afterId = after != null ? KeysetCursor.decode(after) : null;
+        PageRequest pageable = PageRequest.of(afterId != null ? 0 : page, size);
+        ItemJsonWriter json = new ItemJsonWriter();
+        try {
+            // mêmes validateurs que PageResponse pour la même page (HttpValidators.of)
+            HttpValidators validators = HttpValidators.of(render(categoryId, afterId, pageable, count, json), uriInfo, headers);
+            Response notModified = validators.notModified(request);
+            if (notModified != null) {
+                json.close();
+                return notModified;
+            }
+            StreamingOutput body = out -> {
+                try (json) {
+                    json.writeTo(out);
+                }
+            };
+            return validators.ok(body, jakarta.ws.rs.core.MediaType.APPLICATION_JSON_TYPE);
+        } catch (RuntimeException e) {
+            json.close();
+            throw e;
+        }
+    }
+
+    private HttpValidators.PageVersion render(Long categoryId, Long afterId, PageRequest pageable, boolean count,
+                                              ItemJsonWriter json) {
+        int size = pageable.getPageSize();
+        long offset = pageable.getOffset();
+        long[] lastId = new long[1];
+        boolean[] hasNext = new boolean[1];
+        HttpValidators.PageVersion version = new HttpValidators.PageVersion();
+        rows.read(categoryId, afterId, offset, size + 1, rs -> {
+            if (json.items() == size) { // ligne size+1: seulement l'indicateur de suite
+                hasNext[0] = true;
+                return;
+            }
+            lastId[0] = rs.getLong(1);
+            json.item(lastId[0], rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getInt(5),
+                    rs.getLong(6), rs.getString(7));
+            version.row(lastId[0], rs.getLong(8), rs.getTimestamp(9).toInstant());
+        });
+        int n = json.items();
+        int number = pageable.getPageNumber();
+        long total = -1;
+        int totalPages = -1;
+        boolean more = hasNext[0];
+        String nextCursor = null;
+        if (afterId != null) {
+            nextCursor = more && n > 0 ? KeysetCursor.encode(lastId[0]) : null;
+        } else if (count) {
+            total = total(categoryId, offset, size, n);
+            totalPages = (int) Math.ceil((double) total / size);
+            more = number + 1 < totalPages;
+        }
+        json.end(number, size, total, totalPages, more, nextCursor);
+        version.page(number, size, total, more, nextCursor);
+        return version;
+    }
+
+    // PageableExecutionUtils.getPage (pas de COUNT si la page est la dernière) puis ajustement de PageImpl
+    private long total(Long categoryId, long offset, int size, int n) {
+        long total;
+        if (countCache.isEnabled()) {
+            total = countCache.count(categoryId);
+        } else if (size > n && (offset == 0 || n > 0)) {
+            total = offset + n;
+        } else {
+            total = categoryId != null ? itemRepository.countByCategory_Id(categoryId) : itemRepository.count();
+        }
+        return n > 0 && offset + size > total ? offset + n : total;
+    }
+}
@@ -3,46 +3,139 @@ package ma.projet.jersey.web;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 import ma.projet.jersey.domain.Category;
 import ma.projet.jersey.domain.Item;
 import ma.projet.jersey.repository.CategoryRepository;
+import ma.projet.jersey.repository.EntityVersion;
+import ma.projet.jersey.repository.FieldProjection;
+import ma.projet.jersey.repository.ItemCountCache;
+import ma.projet.jersey.repository.ItemFilter;
 import ma.projet.jersey.repository.ItemRepository;
+import ma.projet.jersey.repository.ItemTextSearch;
+import ma.projet.jersey.web.dto.BatchResult;
+import ma.projet.jersey.web.dto.ChangesResponse;
 import ma.projet.jersey.web.dto.ItemDto;
+import ma.projet.jersey.web.dto.ItemHitDto;
 import ma.projet.jersey.web.dto.PageResponse;
 import ma.projet.jersey.web.mapper.DtoMappers;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Component
 @Path("/items")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS})
 @Consumes(MediaType.APPLICATION_JSON)
 public class ItemResource {
+    static final String NDJSON = "application/x-ndjson";
+    // pages OFFSET triées par id: un UPDATE (nouvelle version de ligne) ne réordonne pas les pages en cache
+    private static final Sort BY_ID = Sort.by("id");
+
     private final ItemRepository itemRepository;
     private final CategoryRepository categoryRepository;
+    private final ItemCountCache countCache;
+    private final ItemBatchWriter batchWriter;
+    private final ItemExporter exporter;
+    private final ResponseCache responseCache;
+    private final FieldSelection fieldSelection;
+    private final ItemListWriter listWriter;
+    private final ItemSearch search;
+    private final ItemTextSearch textSearch;
+    private final ChangeFeed changeFeed;
 
     @Value("${app.items.join-fetch.enabled:false}")
     private boolean joinFetchEnabled;
 
-    public ItemResource(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+    @Value("${app.dto-projection.enabled:false}")
+    private boolean dtoProjectionEnabled;
+
+    @Value("${app.items.fast-json.enabled:false}")
+    private boolean fastJsonEnabled;
+
+    public ItemResource(ItemRepository itemRepository, CategoryRepository categoryRepository, ItemCountCache countCache,
+                        ItemBatchWriter batchWriter, ItemExporter exporter, ResponseCache responseCache,
+                        FieldSelection fieldSelection, ItemListWriter listWriter, ItemSearch search,
+                        ItemTextSearch textSearch, ChangeFeed changeFeed) {
         this.itemRepository = itemRepository;
         this.categoryRepository = categoryRepository;
+        this.countCache = countCache;
+        this.batchWriter = batchWriter;
+        this.exporter = exporter;
+        this.responseCache = responseCache;
+        this.fieldSelection = fieldSelection;
+        this.listWriter = listWriter;
+        this.search = search;
+        this.textSearch = textSearch;
+        this.changeFeed = changeFeed;
     }
 
     @GET
-    public PageResponse<ItemDto> list(@QueryParam("categoryId") Long categoryId,
-                           @QueryParam("page") @DefaultValue("0") int page,
-                           @QueryParam("size") @DefaultValue("20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS, BinaryMediaTypes.PROTOBUF_QS})
+    public Response list(@QueryParam("categoryId") Long categoryId,
+                         @QueryParam("page") @DefaultValue("0") int page,
+                         @QueryParam("size") @DefaultValue("20") int size,
+                         @QueryParam("after") String after,
+                         @QueryParam("count") @DefaultValue("true") boolean count,
+                         @QueryParam("fields") String fields,
+                         @QueryParam("minPrice") BigDecimal minPrice,
+                         @QueryParam("maxPrice") BigDecimal maxPrice,
+                         @QueryParam("inStock") @DefaultValue("false") boolean inStock,
+                         @QueryParam("updatedSince") String updatedSince,
+                         @QueryParam("sort") String sort,
+                         @Context Request request, @Context UriInfo uriInfo, @Context HttpHeaders headers) {
+        ItemFilter filter = ItemSearch.filter(categoryId, minPrice, maxPrice, inStock, updatedSince);
+        if (fastJsonEnabled && !filter.isFiltered() && sort == null && fields == null
+                && ItemListWriter.acceptsJson(headers.getHeaderString(HttpHeaders.ACCEPT))) {
+            return listWriter.list(categoryId, page, size, after, count, request, uriInfo, headers);
+        }
+        PageResponse<?> body = list(filter, sort, fields, categoryId, page, size, after, count);
+        HttpValidators validators = HttpValidators.of(body, uriInfo, headers);
+        Response notModified = validators.notModified(request);
+        return notModified != null ? notModified : validators.ok(body);
+    }
+
+    private PageResponse<?> list(ItemFilter filter, String sort, String fields, Long categoryId,
+                                 int page, int size, String after, boolean count) {
+        if (filter.isFiltered() || sort != null) {
+            if (fields != null) throw new BadRequestException("fields cannot be combined with filters or sort");
+            return search.page(filter, sort, page, size, after, count);
+        }
+        if (fields != null) {
+            return fieldSelection.page(FieldProjection.Table.ITEM, fields, categoryId, page, size, after, count,
+                    () -> countItems(categoryId));
+        }
+        return page(categoryId, page, size, after, count);
+    }
+
+    private PageResponse<ItemDto> page(Long categoryId, int page, int size, String after, boolean count) {
+        if (after != null) return listAfter(categoryId, KeysetCursor.decode(after), size);
+        Pageable pageable = PageRequest.of(page, size, BY_ID);
+        if (dtoProjectionEnabled) return listProjected(categoryId, pageable, count);
+        if (!count || countCache.isEnabled()) {
+            Slice<Item> s = listSlice(categoryId, pageable);
+            if (!count) return PageResponse.from(s, DtoMappers::toDto);
+            return PageResponse.from(new PageImpl<>(s.getContent(), pageable, countCache.count(categoryId)), DtoMappers::toDto);
+        }
         Page<Item> p;
         if (categoryId != null) {
             p = joinFetchEnabled
@@ -54,13 +147,97 @@ public class ItemResource {
         return PageResponse.from(p, DtoMappers::toDto);
     }
 
+    // app.dto-projection.enabled: "select new ItemDto(...)", pas d'entité managée ni de mapping
+    private PageResponse<ItemDto> listProjected(Long categoryId, Pageable pageable, boolean count) {
+        if (!count || countCache.isEnabled()) {
+            Slice<ItemDto> s = categoryId != null
+                    ? itemRepository.findDtoSliceByCategoryId(categoryId, pageable)
+                    : itemRepository.findDtoSliceBy(pageable);
+            if (!count) return PageResponse.from(s, Function.identity());
+            return PageResponse.from(new PageImpl<>(s.getContent(), pageable, countCache.count(categoryId)), Function.identity());
+        }
+        Page<ItemDto> p = categoryId != null
+                ? itemRepository.findDtoByCategoryId(categoryId, pageable)
+                : itemRepository.findAllDto(pageable);
+        return PageResponse.from(p, Function.identity());
+    }
+
+    private long countItems(Long categoryId) {
+        if (countCache.isEnabled()) return countCache.count(categoryId);
+        return categoryId != null ? itemRepository.countByCategory_Id(categoryId) : itemRepository.count();
+    }
+
+    // ?count=false ou cache de COUNT actif: pas de requête count(*)
+    private Slice<Item> listSlice(Long categoryId, Pageable pageable) {
+        if (categoryId != null) {
+            return joinFetchEnabled
+                    ? itemRepository.findSliceByCategoryIdJoinFetch(categoryId, pageable)
+                    : itemRepository.findSliceByCategory_Id(categoryId, pageable);
+        }
+        return itemRepository.findSliceBy(pageable);
+    }
+
+    // mode keyset: ?after=<curseur> (vide pour la première page)
+    private PageResponse<ItemDto> listAfter(Long categoryId, long afterId, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Item> s;
+        if (categoryId != null) {
+            s = joinFetchEnabled
+                    ? itemRepository.findByCategoryIdJoinFetchAfter(categoryId, afterId, pageable)
+                    : itemRepository.findByCategory_IdAndIdGreaterThanOrderByIdAsc(categoryId, afterId, pageable);
+        } else {
+            s = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return PageResponse.from(s, DtoMappers::toDto, i -> KeysetCursor.encode(i.getId()));
+    }
+
+    // export complet en NDJSON, écrit au fil du curseur (pas de page, pas de COUNT)
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    public StreamingOutput export() {
+        return exporter::writeNdjson;
+    }
+
+    // recherche texte classée (nom, description, sku), champs légers, sans COUNT ni ETag
+    @GET
+    @Path("/search")
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS, BinaryMediaTypes.PROTOBUF_QS})
+    public PageResponse<ItemHitDto> search(@QueryParam("q") String q,
+                                           @QueryParam("page") @DefaultValue("0") int page,
+                                           @QueryParam("size") @DefaultValue("20") int size) {
+        if (q == null || q.isBlank()) throw new BadRequestException("q is required");
+        PageResponse<ItemHitDto> hits = PageResponse.from(textSearch.search(q.strip(), PageRequest.of(page, size)), Function.identity());
+        hits.setMaxResults(ItemTextSearch.MAX_RESULTS);
+        return hits;
+    }
+
+    // synchronisation incrémentale: modifications et suppressions après ?since= (nextCursor de la réponse précédente)
+    @GET
+    @Path("/changes")
+    public ChangesResponse<ItemDto> changes(@QueryParam("since") String since,
+                                            @QueryParam("limit") @DefaultValue("500") int limit) {
+        return changeFeed.items(since, limit);
+    }
+
     @GET
     @Path("/{id}")
-    public Response get(@PathParam("id") Long id) {
+    @Produces({MediaType.APPLICATION_JSON, BinaryMediaTypes.SMILE_QS, BinaryMediaTypes.CBOR_QS, BinaryMediaTypes.PROTOBUF_QS})
+    public Response get(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                        @Context Request request, @Context HttpHeaders headers) {
+        Optional<EntityVersion> version = itemRepository.findVersionById(id);
+        if (version.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
+        HttpValidators validators = HttpValidators.of(id, version.get(), headers);
+        Response notModified = validators.notModified(request);
+        if (notModified != null) return notModified;
+        if (fields != null) {
+            return fieldSelection.one(FieldProjection.Table.ITEM, fields, id)
+                    .map(validators::ok)
+                    .orElse(Response.status(Response.Status.NOT_FOUND).build());
+        }
         return itemRepository.findById(id)
-                .map(i -> Response.ok(DtoMappers.toDto(i)))
-                .orElse(Response.status(Response.Status.NOT_FOUND))
-                .build();
+                .map(i -> validators.ok(DtoMappers.toDto(i)))
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @POST
@@ -71,32 +248,108 @@ public class ItemResource {
         Item i = new Item();
         copy(dto, i, category.get());
         Item saved = itemRepository.save(i);
+        countCache.invalidate(dto.getCategoryId());
+        responseCache.itemCreated(dto.getCategoryId());
         return Response.created(URI.create("/items/" + saved.getId())).entity(DtoMappers.toDto(saved)).build();
     }
 
     @PUT
     @Path("/{id}")
     @Transactional
-    public Response update(@PathParam("id") Long id, @Valid ItemDto dto) {
+    public Response update(@PathParam("id") Long id, @Valid ItemDto dto, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                           @Context HttpHeaders headers) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) return updateIfMatch(id, dto, ifMatch, headers);
         Optional<Item> opt = itemRepository.findById(id);
         if (opt.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
         Optional<Category> category = categoryRepository.findById(dto.getCategoryId());
         if (category.isEmpty()) return Response.status(Response.Status.BAD_REQUEST).build();
         Item i = opt.get();
+        Long previousCategoryId = i.getCategory().getId();
         copy(dto, i, category.get());
-        return Response.ok(DtoMappers.toDto(itemRepository.save(i))).build();
+        Item saved = itemRepository.saveAndFlush(i);
+        if (!previousCategoryId.equals(dto.getCategoryId())) {
+            countCache.invalidate(previousCategoryId);
+            countCache.invalidate(dto.getCategoryId());
+        }
+        responseCache.itemUpdated(id, previousCategoryId, dto.getCategoryId());
+        return Response.ok(DtoMappers.toDto(saved)).tag(HttpValidators.etag(id, saved.getVersion(), headers)).build();
+    }
+
+    // If-Match: un seul UPDATE ... WHERE id = ? AND version = ?, 412 si la version a changé entre-temps
+    private Response updateIfMatch(Long id, ItemDto dto, String ifMatch, HttpHeaders headers) {
+        if (categoryRepository.findById(dto.getCategoryId()).isEmpty()) return Response.status(Response.Status.BAD_REQUEST).build();
+        Long version = HttpValidators.ifMatchVersion(id, ifMatch);
+        Optional<Long> previousCategoryId = version != null ? itemRepository.updateIfVersion(id, version, dto) : Optional.empty();
+        if (previousCategoryId.isEmpty()) return preconditionFailedOrNotFound(id);
+        if (!previousCategoryId.get().equals(dto.getCategoryId())) {
+            countCache.invalidate(previousCategoryId.get());
+            countCache.invalidate(dto.getCategoryId());
+        }
+        responseCache.itemUpdated(id, previousCategoryId.get(), dto.getCategoryId());
+        dto.setId(id);
+        if (dto.getPrice() == null) dto.setPrice(BigDecimal.ZERO);
+        return Response.ok(dto).tag(HttpValidators.etag(id, version + 1, headers)).build();
+    }
+
+    private Response preconditionFailedOrNotFound(Long id) {
+        return Response.status(itemRepository.findVersionById(id).isPresent()
+                ? Response.Status.PRECONDITION_FAILED : Response.Status.NOT_FOUND).build();
     }
 
     @DELETE
     @Path("/{id}")
     @Transactional
-    public Response delete(@PathParam("id") Long id) {
-        if (!itemRepository.existsById(id)) return Response.status(Response.Status.NOT_FOUND).build();
+    public Response delete(@PathParam("id") Long id, @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            Long version = HttpValidators.ifMatchVersion(id, ifMatch);
+            Optional<Long> categoryId = version != null ? itemRepository.deleteIfVersion(id, version) : Optional.empty();
+            if (categoryId.isEmpty()) return preconditionFailedOrNotFound(id);
+            countCache.invalidate(categoryId.get());
+            responseCache.itemDeleted(categoryId.get());
+            return Response.noContent().build();
+        }
+        Optional<Long> categoryId = itemRepository.findCategoryIdById(id);
+        if (categoryId.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
         itemRepository.deleteById(id);
+        countCache.invalidate(categoryId.get());
+        responseCache.itemDeleted(categoryId.get());
         return Response.noContent().build();
     }
 
-    private static void copy(ItemDto dto, Item i, Category category) {
+    // lots: tableau JSON ou NDJSON (un ItemDto par ligne), résultat par ligne
+    @POST
+    @Path("/batch")
+    public BatchResult createBatch(List<ItemDto> dtos) {
+        return batchWritten(batchWriter.create(dtos));
+    }
+
+    @POST
+    @Path("/batch")
+    @Consumes(NDJSON)
+    public BatchResult createBatchNdjson(InputStream body) throws IOException {
+        return batchWritten(batchWriter.create(batchWriter.readNdjson(body)));
+    }
+
+    @PUT
+    @Path("/batch")
+    public BatchResult updateBatch(List<ItemDto> dtos) {
+        return batchWritten(batchWriter.update(dtos));
+    }
+
+    @PUT
+    @Path("/batch")
+    @Consumes(NDJSON)
+    public BatchResult updateBatchNdjson(InputStream body) throws IOException {
+        return batchWritten(batchWriter.update(batchWriter.readNdjson(body)));
+    }
+
+    // invalidation après la transaction du lot (commit fait au retour de ItemBatchWriter)
+    private BatchResult batchWritten(BatchResult result) {
+        responseCache.itemsChanged();
+        return result;
+    }
+
+    static void copy(ItemDto dto, Item i, Category category) {
         i.setSku(dto.getSku());
         i.setName(dto.getName());
         i.setPrice(dto.getPrice() != null ? dto.getPrice() : BigDecimal.ZERO);
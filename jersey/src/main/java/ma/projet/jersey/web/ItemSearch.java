@@ -0,0 +1,82 @@
+package ma.projet.jersey.web;
+
+import jakarta.ws.rs.BadRequestException;
+import ma.projet.jersey.domain.Item;
+import ma.projet.jersey.repository.ItemFilter;
+import ma.projet.jersey.repository.ItemRepository;
+import ma.projet.jersey.web.dto.ItemDto;
+import ma.projet.jersey.web.dto.PageResponse;
+import ma.projet.jersey.web.mapper.DtoMappers;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtres et tris serveur de GET /items: minPrice, maxPrice, inStock=true (stock > 0), updatedSince (ISO-8601)
+ * et sort=id|price|updatedAt[,asc|desc], départagé par id (pages stables, index (colonne, id)).
+ * Specification JPA; même pagination que la liste simple (after en tri par id, count=false sans COUNT).
+ */
+@Component
+public class ItemSearch {
+    /** Paramètres qui font passer une liste par la recherche (non mise en cache par ResponseCacheFilter). */
+    static final List<String> PARAMS = List.of("minPrice", "maxPrice", "inStock", "updatedSince", "sort");
+    private static final List<String> SORTS = List.of("id", "price", "updatedAt");
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final ItemRepository itemRepository;
+
+    public ItemSearch(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    static boolean requested(Map<String, String[]> parameters) {
+        return PARAMS.stream().anyMatch(parameters::containsKey);
+    }
+
+    static ItemFilter filter(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock, String updatedSince) {
+        try {
+            return new ItemFilter(categoryId, minPrice, maxPrice, inStock, updatedSince != null ? Instant.parse(updatedSince) : null);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("invalid updatedSince, expected ISO-8601 instant", e);
+        }
+    }
+
+    static Sort sort(String sort) {
+        if (sort == null) return BY_ID;
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTS.contains(property) || parts.length > 2) {
+            throw new BadRequestException("invalid sort '" + sort + "', expected one of " + SORTS + "[,asc|desc]");
+        }
+        Sort.Direction direction = parts.length == 2
+                ? Sort.Direction.fromOptionalString(parts[1].trim()).orElseThrow(
+                        () -> new BadRequestException("invalid sort direction '" + parts[1] + "'"))
+                : Sort.Direction.ASC;
+        return property.equals("id") ? Sort.by(direction, "id") : Sort.by(direction, property, "id");
+    }
+
+    PageResponse<ItemDto> page(ItemFilter filter, String sort, int page, int size, String after, boolean count) {
+        Specification<Item> spec = filter.toSpecification();
+        if (after != null) {
+            if (!sort(sort).equals(BY_ID)) throw new BadRequestException("after requires sort=id");
+            Pageable pageable = PageRequest.of(0, size, BY_ID);
+            Slice<Item> s = itemRepository.findBy(spec.and(ItemFilter.idAfter(KeysetCursor.decode(after))), q -> q.slice(pageable));
+            return PageResponse.from(s, DtoMappers::toDto, i -> KeysetCursor.encode(i.getId()));
+        }
+        Pageable pageable = PageRequest.of(page, size, sort(sort));
+        if (!count) {
+            Slice<Item> s = itemRepository.findBy(spec, q -> q.slice(pageable));
+            return PageResponse.from(s, DtoMappers::toDto);
+        }
+        return PageResponse.from(itemRepository.findAll(spec, pageable), DtoMappers::toDto);
+    }
+}
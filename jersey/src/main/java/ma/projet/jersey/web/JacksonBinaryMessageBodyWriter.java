@@ -0,0 +1,44 @@
+package ma.projet.jersey.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Accept: application/x-jackson-smile ou application/cbor: mêmes DTO que le JSON, encodés par Jackson en binaire
+ * (nombres et longueurs de chaînes sans passage par le texte).
+ */
+@Provider
+@Produces({BinaryMediaTypes.SMILE, BinaryMediaTypes.CBOR})
+public class JacksonBinaryMessageBodyWriter implements MessageBodyWriter<Object> {
+    // flux de sortie laissé ouvert: fermé par Jersey
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().featuresToDisable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().featuresToDisable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mapper(mediaType) != null;
+    }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        mapper(mediaType).writeValue(entityStream, value);
+    }
+
+    private ObjectMapper mapper(MediaType mediaType) {
+        if (mediaType == null) return null;
+        String type = mediaType.getType() + "/" + mediaType.getSubtype();
+        return type.equals(BinaryMediaTypes.SMILE) ? smile : type.equals(BinaryMediaTypes.CBOR) ? cbor : null;
+    }
+}
@@ -0,0 +1,17 @@
+package ma.projet.jersey.web;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Écriture concurrente détectée par @Version au flush (PUT/DELETE sans If-Match, lots): 409 plutôt que 500.
+ */
+@Provider
+public class OptimisticLockMapper implements ExceptionMapper<OptimisticLockingFailureException> {
+    @Override
+    public Response toResponse(OptimisticLockingFailureException e) {
+        return Response.status(Response.Status.CONFLICT).build();
+    }
+}
@@ -0,0 +1,20 @@
+package ma.projet.jersey.web;
+
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import ma.projet.jersey.config.RequestTiming;
+
+import java.io.IOException;
+
+/**
+ * Début de la phase "serialization" de RequestTiming: appelé autour du MessageBodyWriter (Jackson, StreamingOutput).
+ */
+@Provider
+public class SerializationTimingInterceptor implements WriterInterceptor {
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        RequestTiming.serializationStarted();
+        context.proceed();
+    }
+}
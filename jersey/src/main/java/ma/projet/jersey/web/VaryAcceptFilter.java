@@ -0,0 +1,19 @@
+package ma.projet.jersey.web;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Vary: Accept sur les GET: la même URL peut être servie en JSON, Smile, CBOR ou Protobuf (BinaryMediaTypes),
+ * un cache HTTP doit donc distinguer les représentations; l'ETag porte aussi le format (HttpValidators).
+ */
+@Provider
+public class VaryAcceptFilter implements ContainerResponseFilter {
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if ("GET".equals(request.getMethod())) response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+}
@@ -0,0 +1,37 @@
+package ma.projet.jersey.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée du flux de changements: état courant de la ressource (data) ou suppression (deleted, data absent).
+ * changedAt (updated_at ou instant de suppression) n'est pas sérialisé: il sert au curseur.
+ */
+public class ChangeDto<T> {
+    private Long id;
+    private boolean deleted;
+    private T data;
+    private LocalDateTime changedAt;
+
+    public ChangeDto() {}
+
+    public ChangeDto(Long id, LocalDateTime changedAt, T data) {
+        this.id = id;
+        this.changedAt = changedAt;
+        this.data = data;
+        this.deleted = data == null;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public T getData() { return data; }
+    public void setData(T data) { this.data = data; }
+    @JsonIgnore
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
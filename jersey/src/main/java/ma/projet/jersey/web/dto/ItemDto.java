@@ -1,13 +1,17 @@
 package ma.projet.jersey.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
+import java.time.Instant;
 
-public class ItemDto {
+public class ItemDto implements Versioned {
     private Long id; // lecture seule
     @NotBlank
+    @Size(max = 64)
     private String sku;
     @NotBlank
+    @Size(max = 128)
     private String name;
     @NotNull
     @DecimalMin("0.0")
@@ -15,7 +19,33 @@ public class ItemDto {
     private int stock;
     @NotNull
     private Long categoryId;
+    @Size(max = 5000)
     private String description;
+    // validateurs des listes (HttpValidators), ni lus ni écrits en JSON
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private Instant updatedAt;
+
+    public ItemDto() {}
+
+    // utilisé par les requêtes "select new" (projection sans entité managée)
+    public ItemDto(Long id, String sku, String name, BigDecimal price, int stock, Long categoryId, String description) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+        this.categoryId = categoryId;
+        this.description = description;
+    }
+
+    public ItemDto(Long id, String sku, String name, BigDecimal price, int stock, Long categoryId, String description,
+                   long version, Instant updatedAt) {
+        this(id, sku, name, price, stock, categoryId, description);
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -31,4 +61,8 @@ public class ItemDto {
     public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
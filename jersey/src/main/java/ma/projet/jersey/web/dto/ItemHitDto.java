@@ -0,0 +1,43 @@
+package ma.projet.jersey.web.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Résultat de GET /items/search: champs légers d'un item (sans description) et score de pertinence.
+ */
+public class ItemHitDto {
+    private Long id;
+    private String sku;
+    private String name;
+    private BigDecimal price;
+    private int stock;
+    private Long categoryId;
+    private float rank;
+
+    public ItemHitDto() {}
+
+    public ItemHitDto(Long id, String sku, String name, BigDecimal price, int stock, Long categoryId, float rank) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+        this.categoryId = categoryId;
+        this.rank = rank;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    public int getStock() { return stock; }
+    public void setStock(int stock) { this.stock = stock; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public float getRank() { return rank; }
+    public void setRank(float rank) { this.rank = rank; }
+}
@@ -0,0 +1,3 @@
+-- Verrouillage optimiste (@Version): les lignes existantes partent de la version 0
+ALTER TABLE category ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE item ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
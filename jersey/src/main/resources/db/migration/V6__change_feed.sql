@@ -0,0 +1,39 @@
+-- Flux de changements GET /items/changes et GET /categories/changes: curseur (updated_at, id).
+-- (updated_at, id) remplace l'index sur updated_at seul, qui ne sert pas la comparaison de lignes
+-- (updated_at, id) > (?, ?); updatedSince et max(updated_at) utilisent le nouvel index.
+CREATE INDEX IF NOT EXISTS idx_item_updated_id ON item(updated_at, id);
+DROP INDEX IF EXISTS idx_item_updated_at;
+CREATE INDEX IF NOT EXISTS idx_category_updated_id ON category(updated_at, id);
+
+-- Tombstones: id supprimé et instant de la suppression, écrits par trigger dans la transaction du DELETE quel que
+-- soit le chemin (JPA, SQL direct avec If-Match, cascade d'une catégorie, Spring Data REST, WebFlux).
+-- TRUNCATE (rechargement du jeu de données) ne déclenche pas les triggers.
+CREATE TABLE IF NOT EXISTS item_tombstone (
+    id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+    );
+CREATE INDEX IF NOT EXISTS idx_item_tombstone_deleted_id ON item_tombstone(deleted_at, id);
+
+CREATE TABLE IF NOT EXISTS category_tombstone (
+    id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+    );
+CREATE INDEX IF NOT EXISTS idx_category_tombstone_deleted_id ON category_tombstone(deleted_at, id);
+
+-- clock_timestamp(): instant du DELETE et non du début de transaction (rapproché de la borne "now - lag" du flux)
+CREATE OR REPLACE FUNCTION item_tombstone() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO item_tombstone (id, deleted_at) VALUES (OLD.id, clock_timestamp()::timestamp)
+    ON CONFLICT (id) DO UPDATE SET deleted_at = excluded.deleted_at;
+    RETURN OLD;
+END $$;
+
+CREATE OR REPLACE FUNCTION category_tombstone() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO category_tombstone (id, deleted_at) VALUES (OLD.id, clock_timestamp()::timestamp)
+    ON CONFLICT (id) DO UPDATE SET deleted_at = excluded.deleted_at;
+    RETURN OLD;
+END $$;
+
+CREATE OR REPLACE TRIGGER item_tombstone AFTER DELETE ON item FOR EACH ROW EXECUTE FUNCTION item_tombstone();
+CREATE OR REPLACE TRIGGER category_tombstone AFTER DELETE ON category FOR EACH ROW EXECUTE FUNCTION category_tombstone();
@@ -0,0 +1,94 @@
+package ma.projet.jersey.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import ma.projet.jersey.domain.Category;
+import ma.projet.jersey.domain.Item;
+import ma.projet.jersey.repository.CategoryRepository;
+import ma.projet.jersey.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Budgets de app.sql.budgets vérifiés de bout en bout: instrumentation activée, requêtes HTTP réelles sur les listes
+ * d'items d'une catégorie créée pour le test, puis assertWithinBudget(). Base PostgreSQL de l'application requise,
+ * comme JerseyApplicationTests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.latency.enabled=true")
+class SqlBudgetTest {
+    private static final int ITEMS = 3;
+
+    @Autowired private SqlBudget budget;
+    @Autowired private MeterRegistry registry;
+    @Autowired private TestRestTemplate rest;
+    @Autowired private CategoryRepository categories;
+    @Autowired private ItemRepository items;
+
+    private Category category;
+    private final List<Item> created = new ArrayList<>();
+
+    @BeforeEach
+    void createCategory() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Category c = new Category();
+        c.setCode("budget-" + suffix);
+        c.setName("Budget SQL");
+        category = categories.save(c);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setSku("budget-" + suffix + "-" + i);
+            item.setName("Item " + i);
+            item.setPrice(BigDecimal.TEN);
+            item.setStock(1);
+            item.setCategory(category);
+            created.add(items.save(item));
+        }
+        budget.reset();
+    }
+
+    @AfterEach
+    void deleteCategory() {
+        items.deleteAll(created);
+        categories.delete(category);
+    }
+
+    @Test
+    void categoryListsStayWithinBudget() throws InterruptedException {
+        // page plus petite que la catégorie: le COUNT est exécuté
+        get("/items?categoryId=" + category.getId() + "&size=2");
+        get("/categories/" + category.getId() + "/items?size=2");
+
+        // GET /items?categoryId: page + COUNT, ni N+1 ni lecture de la catégorie
+        assertThat(awaitStatements("/items").max()).isLessThanOrEqualTo(2);
+        awaitStatements("/categories/{id}/items");
+        budget.assertWithinBudget();
+    }
+
+    private void get(String uri) {
+        assertThat(rest.getForEntity(uri, String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    // le client peut lire la réponse avant la fin du filtre: attente du comptage, posé après SqlBudget.check()
+    private DistributionSummary awaitStatements(String route) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            DistributionSummary summary = registry.find("http.server.sql.statements")
+                    .tags("method", "GET", "route", route).summary();
+            if (summary != null && summary.count() > 0) return summary;
+            assertThat(System.nanoTime()).as("statements non comptés pour %s", route).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
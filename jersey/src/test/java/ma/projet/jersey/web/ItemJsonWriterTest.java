@@ -0,0 +1,123 @@
+package ma.projet.jersey.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.projet.jersey.web.dto.ItemDto;
+import ma.projet.jersey.web.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ItemJsonWriter doit produire exactement les octets de Jackson (configuration Spring Boot) pour
+ * {@code PageResponse<ItemDto>}; pas de contexte Spring ni de base.
+ */
+class ItemJsonWriterTest {
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void controlCharactersAndEscapes() throws IOException {
+        List<ItemDto> items = List.of(
+                item(1L, "SKU-\"1\"", "a\\b/c", "9.99", "\u0000\u0001\b\t\n\u000b\f\r\u001f\u007f"),
+                item(2L, "SKU-2", "tab\there", "0", null));
+        assertSameAsJackson(page(items, 0, 20, 2, 1, false, null));
+    }
+
+    @Test
+    void nonAsciiAndSurrogatePairs() throws IOException {
+        List<ItemDto> items = List.of(
+                item(3L, "SKU-é", "Café crème 中文 €", "1.00", "emoji 😀 fin"),
+                item(4L, "SKU-𝄞", "ÿĀ߿ࠀ￿", "2", "😀"));
+        assertSameAsJackson(page(items, 1, 2, 10, 5, true, null));
+    }
+
+    @Test
+    void pricesKeepTheirScale() throws IOException {
+        List<ItemDto> items = List.of(
+                item(5L, "P1", "zéros", "10.500", null),
+                item(6L, "P2", "grande échelle", "0.0000001234", null),
+                item(7L, "P3", "échelle négative", "1E+3", null),
+                item(8L, "P4", "grand", "123456789012345678901234567890.123456789", null),
+                item(9L, "P5", "négatif", "-0.10", null),
+                item(10L, "P6", "sans prix", null, null));
+        assertSameAsJackson(page(items, 0, 6, 6, 1, false, null));
+    }
+
+    @Test
+    void withoutCount() throws IOException {
+        List<ItemDto> items = List.of(item(10L, "S", "sans count", "3.50", "d"));
+        assertSameAsJackson(page(items, 3, 1, -1, -1, true, null));
+    }
+
+    @Test
+    void keysetWithCursor() throws IOException {
+        List<ItemDto> items = List.of(item(11L, "S", "keyset", "3.50", null), item(Long.MAX_VALUE, "T", "dernier", "4", null));
+        assertSameAsJackson(page(items, 0, 2, -1, -1, true, KeysetCursor.encode(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void emptyPage() throws IOException {
+        assertSameAsJackson(page(List.of(), 0, 20, 0, 0, false, null));
+    }
+
+    @Test
+    void pageLargerThanTheBuffer() throws IOException {
+        // descriptions de 5 Ko en caractères multi-octets: tampon de 16 Ko agrandi plusieurs fois
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            items.add(item((long) i, "SKU" + i, "Item " + i, i + ".0" + i, "é😀\n".repeat(1000 + i)));
+        }
+        assertSameAsJackson(page(items, 0, 40, 1000, 25, true, null));
+    }
+
+    @Test
+    void abandonedPageIsNotWritten() throws IOException {
+        // erreur pendant la lecture des lignes: close() sans writeTo(), tampon rendu au pool sans rien laisser passer
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ItemJsonWriter json = new ItemJsonWriter()) {
+            json.item(item(1L, "A", "abandonné", "1.00", "x".repeat(20000)));
+        }
+        try (ItemJsonWriter json = new ItemJsonWriter()) {
+            json.end(0, 20, 0, 0, false, null);
+            json.writeTo(out);
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).startsWith("{\"content\":[],");
+    }
+
+    private void assertSameAsJackson(PageResponse<ItemDto> page) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ItemJsonWriter json = new ItemJsonWriter()) {
+            for (ItemDto d : page.getContent()) json.item(d);
+            json.end(page.getPage(), page.getSize(), page.getTotalElements(), page.getTotalPages(), page.isHasNext(),
+                    page.getNextCursor());
+            json.writeTo(out);
+        }
+        byte[] expected = mapper.writeValueAsBytes(page);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(new String(expected, StandardCharsets.UTF_8));
+        assertThat(out.toByteArray()).isEqualTo(expected);
+    }
+
+    private static ItemDto item(Long id, String sku, String name, String price, String description) {
+        return new ItemDto(id, sku, name, price != null ? new BigDecimal(price) : null, 7, 42L, description);
+    }
+
+    private static PageResponse<ItemDto> page(List<ItemDto> content, int page, int size, long totalElements,
+                                              int totalPages, boolean hasNext, String nextCursor) {
+        PageResponse<ItemDto> pr = new PageResponse<>();
+        pr.setContent(content);
+        pr.setPage(page);
+        pr.setSize(size);
+        pr.setTotalElements(totalElements);
+        pr.setTotalPages(totalPages);
+        pr.setHasNext(hasNext);
+        pr.setNextCursor(nextCursor);
+        return pr;
+    }
+}
@@ -0,0 +1,73 @@
+package ma.projet.jersey.web;
+
+import ma.projet.jersey.repository.ItemCountCache;
+import ma.projet.jersey.repository.ItemRepository;
+import ma.projet.jersey.repository.ItemRows;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Erreur SQL au milieu du ResultSet: rien ne doit partir dans la réponse (500 encore possible, pas de 200 tronqué).
+ */
+class ItemListWriterTest {
+
+    @Test
+    void failureWhileReadingRowsWritesNothing() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(7)).thenReturn("d".repeat(20000)); // plus d'un tampon de 16 Ko par ligne
+        when(rs.getTimestamp(9)).thenReturn(new Timestamp(0));
+        ItemRows rows = mock(ItemRows.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(4);
+            for (int i = 0; i < 5; i++) handler.processRow(rs);
+            throw new DataAccessResourceFailureException("connexion perdue");
+        }).when(rows).read(isNull(), isNull(), anyLong(), anyInt(), any());
+        ItemListWriter writer = new ItemListWriter(rows, mock(ItemRepository.class), mock(ItemCountCache.class));
+
+        // levée dans la méthode de ressource, avant toute réponse
+        assertThatThrownBy(() -> writer.list(null, 0, 20, null, true, mock(Request.class), uriInfo(), mock(HttpHeaders.class)))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+    }
+
+    @Test
+    void pageIsWrittenOnceComplete() throws IOException {
+        ItemRows rows = mock(ItemRows.class);
+        ItemListWriter writer = new ItemListWriter(rows, mock(ItemRepository.class), mock(ItemCountCache.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Response response = writer.list(null, 0, 20, null, false, mock(Request.class), uriInfo(), mock(HttpHeaders.class));
+        ((StreamingOutput) response.getEntity()).write(out);
+
+        assertThat(response.getEntityTag()).isNotNull();
+        assertThat(out.toString()).isEqualTo("{\"content\":[],\"page\":0,\"size\":20,\"totalElements\":-1,\"totalPages\":-1,\"hasNext\":false}");
+    }
+
+    private static UriInfo uriInfo() {
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getRequestUri()).thenReturn(URI.create("http://localhost/items"));
+        return uriInfo;
+    }
+}
@@ -0,0 +1,92 @@
+package ma.projet.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.projet.restcontroller.web.ProtobufItemsHttpMessageConverter;
+import ma.projet.restcontroller.web.dto.ItemDto;
+import ma.projet.restcontroller.web.dto.PageResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Formats de réponse de la variante C pour une page de 50 ItemDto: JSON, Smile, CBOR (ObjectMapper de
+ * Jackson2ObjectMapperBuilder) et Protobuf (ProtobufItemsHttpMessageConverter). Tailles affichées au setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatsBenchmark {
+    static final int PAGE_SIZE = 50;
+
+    @Param({"1k", "5k"})
+    public String payload;
+
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+    private ProtobufItemsHttpMessageConverter protobuf;
+    private PageResponse<ItemDto> response;
+
+    @Setup
+    public void setup() throws IOException {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        smile = Jackson2ObjectMapperBuilder.smile().build();
+        cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        protobuf = new ProtobufItemsHttpMessageConverter();
+        List<ItemDto> items = Payloads.rows(PAGE_SIZE, payload).stream().map(r -> new ItemDto(r.id(), r.sku(), r.name(), r.price(), r.stock(), 1L, r.description())).toList();
+        response = PageResponse.from(new PageImpl<>(items, PageRequest.of(0, PAGE_SIZE), 100_000), Function.identity());
+        System.out.printf("%npage de %d (%s): json=%d smile=%d cbor=%d protobuf=%d octets%n", PAGE_SIZE, payload,
+                json().length, smile().length, cbor().length, protobuf().length);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return json.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return smile.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cbor.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] protobuf() throws IOException {
+        Message message = new Message();
+        protobuf.write(response, ProtobufItemsHttpMessageConverter.PROTOBUF, message);
+        return message.body.toByteArray();
+    }
+
+    // HttpOutputMessage minimal (corps en mémoire), comme la réponse tamponnée par CompressionFilter
+    private static final class Message implements HttpOutputMessage {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(16384);
+        final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
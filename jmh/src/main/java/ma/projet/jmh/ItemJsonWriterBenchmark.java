@@ -0,0 +1,112 @@
+package ma.projet.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.projet.restcontroller.domain.Category;
+import ma.projet.restcontroller.domain.Item;
+import ma.projet.restcontroller.web.ItemJsonWriter;
+import ma.projet.restcontroller.web.dto.PageResponse;
+import ma.projet.restcontroller.web.mapper.DtoMappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /items?size=50 en variante C: chaîne standard (entités -> DtoMappers -> PageResponse -> Jackson) contre
+ * ItemJsonWriter (lignes écrites directement, app.items.fast-json.enabled). Les deux écrivent dans le même flux
+ * réutilisé (comme le tampon de réponse); comparer gc.alloc.rate.norm avec -prof gc. Le setup vérifie que les
+ * deux sorties sont identiques octet pour octet, y compris pour des chaînes à échapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemJsonWriterBenchmark {
+    static final int PAGE_SIZE = 50;
+    static final long TOTAL = 100_000;
+
+    @Param({"1k", "5k"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private List<Payloads.Row> rows;
+    private Page<Item> page;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        sink = new ByteArrayOutputStream(PAGE_SIZE * 8192);
+        rows = Payloads.rows(PAGE_SIZE, payload);
+        page = page(rows);
+        check(rows, page);
+        List<Payloads.Row> tricky = new ArrayList<>(rows.subList(0, 2));
+        tricky.add(new Payloads.Row(-7, "quote\"back\\slash/", "ctl\b\t\n\f\r\u0001\u001f\u007f",
+                new BigDecimal("12.50"), 0, 3, "é à ü € 漢字 😀"));
+        check(tricky, page(tricky));
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        sink.reset();
+        mapper.writeValue(sink, PageResponse.from(page, DtoMappers::toDto));
+        return sink.size();
+    }
+
+    @Benchmark
+    public int handWritten() throws IOException {
+        sink.reset();
+        write(rows);
+        return sink.size();
+    }
+
+    private void write(List<Payloads.Row> page) throws IOException {
+        try (ItemJsonWriter json = new ItemJsonWriter()) {
+            for (Payloads.Row r : page) {
+                json.item(r.id(), r.sku(), r.name(), r.price(), r.stock(), r.categoryId(), r.description());
+            }
+            int totalPages = (int) Math.ceil((double) TOTAL / PAGE_SIZE);
+            json.end(0, PAGE_SIZE, TOTAL, totalPages, totalPages > 1, null);
+            json.writeTo(sink);
+        }
+    }
+
+    private void check(List<Payloads.Row> rows, Page<Item> page) throws IOException {
+        byte[] expected = mapper.writeValueAsBytes(PageResponse.from(page, DtoMappers::toDto));
+        sink.reset();
+        write(rows);
+        if (!Arrays.equals(expected, sink.toByteArray())) {
+            throw new IllegalStateException("ItemJsonWriter diffère de Jackson:\n" + new String(expected) + "\n" + sink);
+        }
+    }
+
+    private static Page<Item> page(List<Payloads.Row> rows) {
+        List<Item> items = rows.stream().map(ItemJsonWriterBenchmark::toEntity).toList();
+        return new PageImpl<>(items, PageRequest.of(0, PAGE_SIZE), TOTAL);
+    }
+
+    private static Item toEntity(Payloads.Row r) {
+        Category category = new Category();
+        category.setId(r.categoryId());
+        Item i = new Item();
+        i.setId(r.id());
+        i.setSku(r.sku());
+        i.setName(r.name());
+        i.setPrice(r.price());
+        i.setStock(r.stock());
+        i.setCategory(category);
+        i.setDescription(r.description());
+        return i;
+    }
+}
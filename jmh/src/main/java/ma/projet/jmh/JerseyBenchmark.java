@@ -0,0 +1,92 @@
+package ma.projet.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.projet.jersey.domain.Category;
+import ma.projet.jersey.domain.Item;
+import ma.projet.jersey.web.dto.ItemDto;
+import ma.projet.jersey.web.dto.PageResponse;
+import ma.projet.jersey.web.mapper.DtoMappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Variante A (Jersey): chemin d'une page GET /items (entités -> DtoMappers -> PageResponse -> JSON),
+ * découpé en étapes. ObjectMapper configuré comme celui de Spring Boot (Jackson2ObjectMapperBuilder).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JerseyBenchmark {
+    static final int PAGE_SIZE = 50;
+
+    @Param({"1k", "5k"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private Item item;
+    private Page<Item> page;
+    private ItemDto dto;
+    private PageResponse<ItemDto> response;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        Category category = new Category();
+        category.setId(1L);
+        category.setCode("CAT0001");
+        category.setName("Category 0001");
+        List<Item> items = Payloads.rows(PAGE_SIZE, payload).stream().map(r -> toEntity(r, category)).toList();
+        item = items.get(0);
+        page = new PageImpl<>(items, PageRequest.of(0, PAGE_SIZE), 100_000);
+        dto = DtoMappers.toDto(item);
+        response = PageResponse.from(page, DtoMappers::toDto);
+    }
+
+    @Benchmark
+    public ItemDto mapItem() {
+        return DtoMappers.toDto(item);
+    }
+
+    @Benchmark
+    public PageResponse<ItemDto> pageFrom() {
+        return PageResponse.from(page, DtoMappers::toDto);
+    }
+
+    @Benchmark
+    public byte[] serializeItem() throws IOException {
+        return mapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    // mapping + sérialisation d'une page de 50, comme une réponse GET /items?size=50
+    @Benchmark
+    public byte[] listPage() throws IOException {
+        return mapper.writeValueAsBytes(PageResponse.from(page, DtoMappers::toDto));
+    }
+
+    private static Item toEntity(Payloads.Row r, Category category) {
+        Item i = new Item();
+        i.setId(r.id());
+        i.setSku(r.sku());
+        i.setName(r.name());
+        i.setPrice(r.price());
+        i.setStock(r.stock());
+        i.setCategory(category);
+        i.setDescription(r.description());
+        return i;
+    }
+}
@@ -0,0 +1,80 @@
+package ma.projet.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Lignes d'items aux formes de scripts/generate_dataset.py (seed 42): "1k" = nom complété jusqu'à ~1 KB
+ * de JSON (items_payload_small.jsonl), "5k" = description complétée jusqu'à ~5 KB (items_payload_large.jsonl).
+ * Générées en mémoire: aucun fichier, base ou réseau nécessaire.
+ */
+public final class Payloads {
+    public static final int SMALL_TARGET = 1024;
+    public static final int LARGE_TARGET = 5 * 1024;
+    public static final int CATEGORIES = 2000;
+
+    private static final String LOREM =
+            "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor incididunt ut labore et dolore magna aliqua "
+            + "ut enim ad minim veniam quis nostrud exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat duis aute irure "
+            + "dolor in reprehenderit in voluptate velit esse cillum dolore eu fugiat nulla pariatur excepteur sint occaecat cupidatat non "
+            + "proident sunt in culpa qui officia deserunt mollit anim id est laborum ";
+
+    private static final ObjectMapper SIZER = new ObjectMapper();
+
+    private Payloads() {}
+
+    public record Row(long id, String sku, String name, BigDecimal price, int stock, long categoryId, String description) {}
+
+    /** shape: "1k" ou "5k". */
+    public static List<Row> rows(int count, String shape) {
+        Random rng = new Random(43);
+        List<Row> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            long categoryId = Math.max(1, Math.min(CATEGORIES, ((i - 1) % CATEGORIES) + 1 + rng.nextInt(11) - 5));
+            BigDecimal price = BigDecimal.valueOf(100 + rng.nextInt(999900), 2);
+            int stock = (int) (Math.pow(rng.nextDouble(), 1.5) * 500);
+            String sku = String.format("SKU%06d", i);
+            String name = String.format("Item %06d", i);
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("sku", sku);
+            json.put("name", name);
+            json.put("price", price);
+            json.put("stock", stock);
+            json.put("categoryId", categoryId);
+            String description = null;
+            if ("5k".equals(shape)) {
+                json.put("description", "");
+                description = repeatToBytes("Autogenerated description. ", Math.max(0, LARGE_TARGET - size(json)));
+            } else {
+                int deficit = SMALL_TARGET - size(json);
+                if (deficit > 0) name = name + repeatToBytes("", deficit);
+            }
+            rows.add(new Row(i, sku, name, price, stock, categoryId, description));
+        }
+        return rows;
+    }
+
+    private static int size(Map<String, Object> json) {
+        try {
+            return SIZER.writeValueAsBytes(json).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // texte ASCII de target octets exactement (repeat_text_to_bytes du script Python)
+    private static String repeatToBytes(String prefix, int target) {
+        if (target <= 0) return prefix;
+        String base = prefix.isBlank() ? "" : prefix.strip() + " ";
+        String s = (base + LOREM).repeat(target / LOREM.length() + 3);
+        return new String(s.getBytes(StandardCharsets.US_ASCII), 0, target, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,106 @@
+package ma.projet.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.projet.springdatarest.domain.Category;
+import ma.projet.springdatarest.domain.Item;
+import ma.projet.springdatarest.web.projection.ItemView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Variante D (Spring Data REST): projection ItemView (proxy SpEL, #{target.category.id}) puis rendu HAL
+ * (_links self/item/category, page de 50 avec métadonnées). Reproduit le rendu de ?projection=itemView
+ * hors contexte Spring: mêmes Jackson2HalModule et fabrique de projections que Spring Data REST.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpringDataRestBenchmark {
+    static final int PAGE_SIZE = 50;
+    static final String BASE = "http://localhost:8083";
+
+    @Param({"1k", "5k"})
+    public String payload;
+
+    private ObjectMapper hal;
+    private SpelAwareProxyProjectionFactory projections;
+    private List<Item> items;
+    private EntityModel<ItemView> model;
+    private PagedModel<EntityModel<ItemView>> pageModel;
+
+    @Setup
+    public void setup() {
+        hal = Jackson2ObjectMapperBuilder.json().build();
+        hal.registerModule(new Jackson2HalModule());
+        hal.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        projections = new SpelAwareProxyProjectionFactory();
+        Category category = new Category();
+        category.setId(1L);
+        category.setCode("CAT0001");
+        category.setName("Category 0001");
+        items = Payloads.rows(PAGE_SIZE, payload).stream().map(r -> toEntity(r, category)).toList();
+        model = model(items.get(0));
+        pageModel = page();
+    }
+
+    @Benchmark
+    public ItemView project() {
+        return projections.createProjection(ItemView.class, items.get(0));
+    }
+
+    @Benchmark
+    public byte[] renderItem() throws IOException {
+        return hal.writeValueAsBytes(model);
+    }
+
+    @Benchmark
+    public byte[] renderPage() throws IOException {
+        return hal.writeValueAsBytes(pageModel);
+    }
+
+    // projection + rendu HAL d'une page de 50, comme GET /items?size=50&projection=itemView
+    @Benchmark
+    public byte[] listPage() throws IOException {
+        return hal.writeValueAsBytes(page());
+    }
+
+    private PagedModel<EntityModel<ItemView>> page() {
+        List<EntityModel<ItemView>> content = items.stream().map(this::model).toList();
+        return PagedModel.of(content, new PagedModel.PageMetadata(PAGE_SIZE, 0, 100_000),
+                Link.of(BASE + "/items?page=0&size=" + PAGE_SIZE), Link.of(BASE + "/items?page=1&size=" + PAGE_SIZE, "next"));
+    }
+
+    private EntityModel<ItemView> model(Item i) {
+        ItemView view = projections.createProjection(ItemView.class, i);
+        String self = BASE + "/items/" + i.getId();
+        return EntityModel.of(view, Link.of(self), Link.of(self + "{?projection}", "item"), Link.of(self + "/category", "category"));
+    }
+
+    private static Item toEntity(Payloads.Row r, Category category) {
+        Item i = new Item();
+        i.setId(r.id());
+        i.setSku(r.sku());
+        i.setName(r.name());
+        i.setPrice(r.price());
+        i.setStock(r.stock());
+        i.setCategory(category);
+        i.setDescription(r.description());
+        return i;
+    }
+}
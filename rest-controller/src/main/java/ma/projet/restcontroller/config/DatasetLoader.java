@@ -0,0 +1,331 @@
+package ma.projet.restcontroller.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Chargeur du profil init: categories.csv puis items.csv (scripts/generate_dataset.py) par COPY ... FROM STDIN
+ * (CopyManager pgjdbc), découpés en blocs de app.init.chunk-bytes coupés en fin d'enregistrement CSV et chargés
+ * en parallèle (une connexion et une transaction par bloc, synchronous_commit=off). Les index secondaires et les
+ * contraintes UNIQUE / FOREIGN KEY de item et category sont supprimés avant le chargement puis reconstruits en
+ * parallèle (clés primaires conservées). Séquences replacées après max(id) comme V2__pooled_id_sequences.sql.
+ * Base déjà peuplée: rien n'est fait sauf avec app.init.reload=true (TRUNCATE puis chargement).
+ * Exécuté avant ApplicationReadyEvent: la sonde readiness reste négative pendant le chargement.
+ * Métriques: dataset_load_rows_total, dataset_load_bytes_total (par table), dataset_load_duration_seconds (par phase).
+ */
+@Component
+@Profile("init")
+public class DatasetLoader implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(DatasetLoader.class);
+    private static final Pattern COLUMN = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final DataSource dataSource;
+    private final MeterRegistry registry;
+    private final Path dir;
+    private final boolean reload;
+    private final int parallelism;
+    private final int chunkBytes;
+    private final String maintenanceWorkMem;
+
+    public DatasetLoader(DataSource dataSource, MeterRegistry registry,
+                         @Value("${app.init.data-dir:../data}") String dataDir,
+                         @Value("${app.init.reload:false}") boolean reload,
+                         @Value("${app.init.parallelism:0}") int parallelism,
+                         @Value("${app.init.chunk-bytes:8388608}") int chunkBytes,
+                         @Value("${app.init.maintenance-work-mem:512MB}") String maintenanceWorkMem) {
+        this.dataSource = dataSource;
+        this.registry = registry;
+        this.dir = Path.of(dataDir);
+        this.reload = reload;
+        this.parallelism = parallelism > 0 ? parallelism : Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        this.chunkBytes = chunkBytes;
+        this.maintenanceWorkMem = maintenanceWorkMem;
+    }
+
+    private record Deferred(String name, String drop, String create, boolean foreignKey) {}
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path categories = dir.resolve("categories.csv");
+        Path items = dir.resolve("items.csv");
+        if (!Files.isReadable(categories) || !Files.isReadable(items)) {
+            log.warn("Profil init: {} ou {} introuvable (python3 scripts/generate_dataset.py --out-dir {}), chargement ignoré",
+                    categories, items, dir);
+            return;
+        }
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> new Thread(r, "dataset-load-" + n.incrementAndGet()));
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            if (!reload && populated(st)) {
+                log.info("Profil init: item déjà peuplée, chargement ignoré (app.init.reload=true pour recharger)");
+                return;
+            }
+            long start = System.nanoTime();
+            st.execute("TRUNCATE item, category, item_tombstone, category_tombstone CASCADE");
+            List<Deferred> deferred = deferred(st);
+            for (Deferred d : deferred) st.execute(d.drop());
+            try {
+                Timer.Sample copy = Timer.start(registry);
+                long categoryRows = load("category", categories, pool);
+                long itemRows = load("item", items, pool);
+                copy.stop(duration("copy"));
+                log.info("Profil init: {} catégories et {} items copiés en {} ms (blocs de {} Ko sur {} connexions)",
+                        categoryRows, itemRows, millis(start), chunkBytes >> 10, parallelism);
+            } finally {
+                Timer.Sample index = Timer.start(registry);
+                long rebuild = System.nanoTime();
+                rebuild(deferred, pool);
+                index.stop(duration("index"));
+                log.info("Profil init: {} index / contraintes reconstruits en {} ms", deferred.size(), millis(rebuild));
+            }
+            st.execute("SELECT setval('category_id_seq', COALESCE((SELECT MAX(id) FROM category), 0) + 50, false)");
+            st.execute("SELECT setval('item_id_seq', COALESCE((SELECT MAX(id) FROM item), 0) + 50, false)");
+            st.execute("ANALYZE category");
+            st.execute("ANALYZE item");
+            log.info("Profil init: jeu de données chargé en {} ms", millis(start));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean populated(Statement st) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT EXISTS (SELECT 1 FROM item)")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    // index hors contraintes puis contraintes UNIQUE et FOREIGN KEY (FK reconstruites en dernier)
+    private static List<Deferred> deferred(Statement st) throws SQLException {
+        List<Deferred> deferred = new ArrayList<>();
+        try (ResultSet rs = st.executeQuery("""
+                SELECT i.indexrelid::regclass::text, pg_get_indexdef(i.indexrelid)
+                FROM pg_index i
+                WHERE i.indrelid IN ('item'::regclass, 'category'::regclass) AND NOT i.indisprimary
+                  AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid AND c.contype IN ('p', 'u', 'x'))
+                """)) {
+            while (rs.next()) deferred.add(new Deferred(rs.getString(1), "DROP INDEX " + rs.getString(1), rs.getString(2), false));
+        }
+        try (ResultSet rs = st.executeQuery("""
+                SELECT c.conrelid::regclass::text, quote_ident(c.conname), pg_get_constraintdef(c.oid), c.contype = 'f'
+                FROM pg_constraint c
+                WHERE c.conrelid IN ('item'::regclass, 'category'::regclass) AND c.contype IN ('u', 'f')
+                """)) {
+            while (rs.next()) {
+                String table = rs.getString(1);
+                String name = rs.getString(2);
+                deferred.add(new Deferred(name, "ALTER TABLE " + table + " DROP CONSTRAINT " + name,
+                        "ALTER TABLE " + table + " ADD CONSTRAINT " + name + " " + rs.getString(3), rs.getBoolean(4)));
+            }
+        }
+        // FK supprimées avant les UNIQUE qu'elles pourraient référencer
+        deferred.sort((a, b) -> Boolean.compare(b.foreignKey(), a.foreignKey()));
+        return deferred;
+    }
+
+    /**
+     * Lit csv par blocs d'environ chunkBytes octets coupés après un saut de ligne hors guillemets et les envoie
+     * au pool (au plus 2 x parallelism blocs en mémoire). L'en-tête donne la liste de colonnes du COPY.
+     */
+    private long load(String table, Path csv, ExecutorService pool) throws IOException, InterruptedException, ExecutionException {
+        Counter rowCounter = Counter.builder("dataset.load.rows").description("Lignes chargées par COPY")
+                .tag("table", table).register(registry);
+        Counter byteCounter = Counter.builder("dataset.load.bytes").description("Octets CSV envoyés par COPY")
+                .baseUnit("bytes").tag("table", table).register(registry);
+        Semaphore inFlight = new Semaphore(2 * parallelism);
+        List<Future<Long>> chunks = new ArrayList<>();
+        AtomicLong rows = new AtomicLong();
+        long start = System.nanoTime();
+        long lastProgress = start;
+        long read = 0;
+        String sql = null;
+        try (InputStream in = Files.newInputStream(csv)) {
+            byte[] buf = new byte[chunkBytes];
+            int len = 0;
+            int scanned = 0;
+            int lastEnd = 0;
+            boolean quoted = false;
+            while (true) {
+                if (len == buf.length) {
+                    if (lastEnd == 0) {
+                        buf = Arrays.copyOf(buf, buf.length * 2); // enregistrement plus long qu'un bloc
+                    } else {
+                        byte[] next = new byte[Math.max(chunkBytes, 2 * (len - lastEnd))];
+                        System.arraycopy(buf, lastEnd, next, 0, len - lastEnd);
+                        chunks.add(submit(pool, inFlight, sql, buf, lastEnd, rows, rowCounter, byteCounter));
+                        buf = next;
+                        len -= lastEnd;
+                        scanned -= lastEnd;
+                        lastEnd = 0;
+                    }
+                }
+                int r = in.read(buf, len, buf.length - len);
+                if (r < 0) break;
+                len += r;
+                read += r;
+                for (; scanned < len; scanned++) {
+                    byte b = buf[scanned];
+                    if (b == '"') quoted = !quoted;
+                    else if (b == '\n' && !quoted) lastEnd = scanned + 1;
+                }
+                if (sql == null && lastEnd > 0) {
+                    int header = indexOf(buf, (byte) '\n') + 1;
+                    sql = copySql(table, new String(buf, 0, header, StandardCharsets.UTF_8));
+                    System.arraycopy(buf, header, buf, 0, len - header);
+                    len -= header;
+                    scanned -= header;
+                    lastEnd -= header;
+                }
+                long now = System.nanoTime();
+                if (now - lastProgress >= PROGRESS_INTERVAL) {
+                    lastProgress = now;
+                    log.info("Profil init: {} - {} lignes, {} Mo lus, {} lignes/s", table, rows.get(), read >> 20,
+                            rows.get() * TimeUnit.SECONDS.toNanos(1) / (now - start));
+                }
+            }
+            if (sql == null) throw new IOException(csv + ": en-tête CSV absent");
+            if (len > 0) chunks.add(submit(pool, inFlight, sql, buf, len, rows, rowCounter, byteCounter));
+            long total = 0;
+            for (Future<Long> chunk : chunks) total += chunk.get();
+            return total;
+        } finally {
+            for (Future<Long> chunk : chunks) chunk.cancel(true);
+        }
+    }
+
+    private Future<Long> submit(ExecutorService pool, Semaphore inFlight, String sql, byte[] bytes, int length,
+                                AtomicLong rows, Counter rowCounter, Counter byteCounter) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            return pool.submit(() -> {
+                try {
+                    long n = copy(sql, bytes, length);
+                    rows.addAndGet(n);
+                    rowCounter.increment(n);
+                    byteCounter.increment(length);
+                    return n;
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    // une transaction par bloc; synchronous_commit local à la transaction (connexion rendue intacte au pool)
+    private long copy(String sql, byte[] bytes, int length) throws SQLException, IOException {
+        try (Connection c = dataSource.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                setLocal(c, "synchronous_commit", "off");
+                long n = c.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new ByteArrayInputStream(bytes, 0, length));
+                c.commit();
+                return n;
+            } catch (SQLException | IOException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void rebuild(List<Deferred> deferred, ExecutorService pool) throws InterruptedException, ExecutionException {
+        List<Future<?>> builds = new ArrayList<>();
+        for (Deferred d : deferred) if (!d.foreignKey()) builds.add(pool.submit(execute(d)));
+        for (Future<?> build : builds) build.get();
+        builds.clear();
+        for (Deferred d : deferred) if (d.foreignKey()) builds.add(pool.submit(execute(d)));
+        for (Future<?> build : builds) build.get();
+    }
+
+    private Callable<Void> execute(Deferred d) {
+        return () -> {
+            long start = System.nanoTime();
+            try (Connection c = dataSource.getConnection()) {
+                c.setAutoCommit(false);
+                try (Statement st = c.createStatement()) {
+                    setLocal(c, "maintenance_work_mem", maintenanceWorkMem);
+                    st.execute(d.create());
+                    c.commit();
+                } catch (SQLException | RuntimeException e) {
+                    c.rollback();
+                    throw e;
+                } finally {
+                    c.setAutoCommit(true);
+                }
+            }
+            log.info("Profil init: {} reconstruit en {} ms", d.name(), millis(start));
+            return null;
+        };
+    }
+
+    private static void setLocal(Connection c, String name, String value) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT set_config(?, ?, true)")) {
+            ps.setString(1, name);
+            ps.setString(2, value);
+            ps.execute();
+        }
+    }
+
+    private static String copySql(String table, String header) throws IOException {
+        List<String> columns = new ArrayList<>();
+        for (String column : header.strip().split(",")) {
+            String name = column.strip().replace("\"", "");
+            if (!COLUMN.matcher(name).matches()) throw new IOException(table + ": colonne CSV invalide '" + column + "'");
+            columns.add(name);
+        }
+        return "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    private static int indexOf(byte[] bytes, byte b) {
+        for (int i = 0; i < bytes.length; i++) if (bytes[i] == b) return i;
+        return -1;
+    }
+
+    private Timer duration(String phase) {
+        return Timer.builder("dataset.load.duration").description("Durée du chargement du profil init par phase")
+                .tag("phase", phase).register(registry);
+    }
+
+    private static long millis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
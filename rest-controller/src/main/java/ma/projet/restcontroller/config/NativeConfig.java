@@ -0,0 +1,42 @@
+package ma.projet.restcontroller.config;
+
+import ma.projet.restcontroller.domain.Category;
+import ma.projet.restcontroller.domain.Item;
+import ma.projet.restcontroller.repository.EntityVersion;
+import ma.projet.restcontroller.web.dto.BatchResult;
+import ma.projet.restcontroller.web.dto.CategoryDto;
+import ma.projet.restcontroller.web.dto.ChangeDto;
+import ma.projet.restcontroller.web.dto.ChangesResponse;
+import ma.projet.restcontroller.web.dto.ItemDto;
+import ma.projet.restcontroller.web.dto.ItemHitDto;
+import ma.projet.restcontroller.web.dto.PageResponse;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Image native (profil Maven native): ce que l'AOT de Spring ne déduit pas des signatures. Les méthodes web
+ * retournent {@code PageResponse<?>} / {@code ResponseEntity<?>}, les DTO sont donc déclarés pour Jackson; les classes des
+ * "select new" JPQL (DTO, versions) sont instanciées par Hibernate; application.conf est lu par Caffeine JCache.
+ * Sans effet sur la JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeConfig.Hints.class)
+@RegisterReflectionForBinding({PageResponse.class, ItemDto.class, ItemHitDto.class, CategoryDto.class, BatchResult.class,
+        ChangesResponse.class, ChangeDto.class})
+public class NativeConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : new Class<?>[]{Item.class, Category.class, ItemDto.class, CategoryDto.class,
+                    EntityVersion.class}) {
+                hints.reflection().registerType(type, MemberCategory.values());
+            }
+            hints.resources().registerPattern("application.conf");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ma.projet.restcontroller.config;
+
+/**
+ * Phases d'une requête cumulées sur le thread qui la traite, lues par RequestTimingFilter en fin de requête:
+ * attente (lecture Tomcat -> filtre, admission, connexion Hikari), base (exécution des statements JDBC)
+ * et sérialisation (du début d'écriture du corps à la fin de la requête), plus le nombre de statements
+ * exécutés et de lignes lues (détection des N+1, budgets de SqlBudget).
+ * Hors requête HTTP (démarrage, Flyway, threads d'écriture asynchrone) les appels sont sans effet.
+ */
+public final class RequestTiming {
+    /** Attribut posé par la valve Tomcat: début de lecture de la requête (System.nanoTime()). */
+    static final String CONTAINER_START = RequestTiming.class.getName() + ".containerStart";
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    long queueNanos;
+    long dbNanos;
+    int statements;
+    long rows;
+    private long serializationStart;
+    private long waitedAtSerialization;
+
+    private RequestTiming() {}
+
+    static RequestTiming begin(long queuedNanos) {
+        RequestTiming timing = new RequestTiming();
+        timing.queueNanos = queuedNanos;
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static void addQueue(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) timing.queueNanos += nanos;
+    }
+
+    /** Un appel execute*() (un lot executeBatch compte pour un aller-retour). */
+    public static void addStatement(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.dbNanos += nanos;
+            timing.statements++;
+        }
+    }
+
+    public static void addRow() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) timing.rows++;
+    }
+
+    /** Début d'écriture du corps (message converter); la fin est la sortie de RequestTimingFilter. */
+    public static void serializationStarted() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStart == 0) {
+            timing.serializationStart = System.nanoTime();
+            timing.waitedAtSerialization = timing.queueNanos + timing.dbNanos;
+        }
+    }
+
+    // écriture du corps hors SQL et attente de connexion survenus pendant l'écriture (export en flux)
+    long serializationNanos(long end) {
+        if (serializationStart == 0) return 0;
+        return Math.max(0, end - serializationStart - (queueNanos + dbNanos - waitedAtSerialization));
+    }
+}
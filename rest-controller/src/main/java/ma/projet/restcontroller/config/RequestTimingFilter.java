@@ -0,0 +1,127 @@
+package ma.projet.restcontroller.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Latences serveur par route, méthode et statut, mesurées depuis le début de lecture de la requête par Tomcat
+ * (valve de RequestTimingConfig) et découpées en phases: queue, db, serialization, app (reste) et total.
+ * Histogrammes Prometheus (http_server_phases_seconds_bucket) avec les seuils SLO de app.latency.slo:
+ * p99 par route et par variante côté serveur, sans les pauses GC ni l'omission coordonnée du client.
+ * Par requête également: statements SQL exécutés et lignes lues (http_server_sql_statements / _rows), comparés
+ * aux budgets de SqlBudget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "app.latency.enabled", havingValue = "true")
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private static final Pattern ID = Pattern.compile("/\\d+(?=/|$)");
+    private static final Set<String> ROUTES = Set.of("/items", "/items/{id}", "/items/export", "/items/batch", "/items/search",
+            "/items/changes", "/categories", "/categories/{id}", "/categories/{id}/items", "/categories/changes");
+
+    private final Meter.MeterProvider<Timer> phases;
+    private final Meter.MeterProvider<DistributionSummary> statements;
+    private final Meter.MeterProvider<DistributionSummary> rows;
+    private final SqlBudget budget;
+
+    public RequestTimingFilter(MeterRegistry registry, SqlBudget budget,
+                               @Value("${app.latency.slo:5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s}") Duration[] slo) {
+        this.phases = Timer.builder("http.server.phases")
+                .description("Latence serveur par phase (queue, db, serialization, app, total)")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(slo)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .withRegistry(registry);
+        this.statements = DistributionSummary.builder("http.server.sql.statements")
+                .description("Statements SQL exécutés par requête")
+                .baseUnit("statements")
+                .serviceLevelObjectives(1, 2, 3, 4, 5, 10, 20, 50, 100)
+                .withRegistry(registry);
+        this.rows = DistributionSummary.builder("http.server.sql.rows")
+                .description("Lignes lues (ResultSet) par requête")
+                .baseUnit("rows")
+                .serviceLevelObjectives(1, 10, 20, 50, 100, 200, 500, 1000, 10000)
+                .withRegistry(registry);
+        this.budget = budget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long entry = System.nanoTime();
+        long start = request.getAttribute(RequestTiming.CONTAINER_START) instanceof Long t && t > 0 && t <= entry ? t : entry;
+        RequestTiming timing = RequestTiming.begin(entry - start);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTiming.end();
+            if (request.isAsyncStarted()) {
+                // réponses asynchrones (StreamingResponseBody): mesure jusqu'à la fin de l'écriture
+                AtomicBoolean recorded = new AtomicBoolean();
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override public void onComplete(AsyncEvent event) { record(recorded, request, response, timing, start); }
+                    @Override public void onTimeout(AsyncEvent event) { record(recorded, request, response, timing, start); }
+                    @Override public void onError(AsyncEvent event) { record(recorded, request, response, timing, start); }
+                    @Override public void onStartAsync(AsyncEvent event) { }
+                });
+            } else {
+                record(new AtomicBoolean(), request, response, timing, start);
+            }
+        }
+    }
+
+    private void record(AtomicBoolean recorded, HttpServletRequest request, HttpServletResponse response,
+                        RequestTiming timing, long start) {
+        if (!recorded.compareAndSet(false, true)) return;
+        long end = System.nanoTime();
+        long total = end - start;
+        long serialization = timing.serializationNanos(end);
+        long app = Math.max(0, total - timing.queueNanos - timing.dbNanos - serialization);
+        String method = request.getMethod();
+        String route = route(request);
+        String status = Integer.toString(response.getStatus());
+        phases.withTags("method", method, "route", route, "status", status, "phase", "total").record(total, TimeUnit.NANOSECONDS);
+        phases.withTags("method", method, "route", route, "status", status, "phase", "queue").record(timing.queueNanos, TimeUnit.NANOSECONDS);
+        phases.withTags("method", method, "route", route, "status", status, "phase", "db").record(timing.dbNanos, TimeUnit.NANOSECONDS);
+        phases.withTags("method", method, "route", route, "status", status, "phase", "serialization").record(serialization, TimeUnit.NANOSECONDS);
+        phases.withTags("method", method, "route", route, "status", status, "phase", "app").record(app, TimeUnit.NANOSECONDS);
+        // budget vérifié avant le comptage: une requête visible dans http.server.sql.statements est déjà vérifiée
+        budget.check(request, route, timing.statements);
+        statements.withTags("method", method, "route", route).record(timing.statements);
+        rows.withTags("method", method, "route", route).record(timing.rows);
+    }
+
+    // ids numériques -> {id}; chemins hors API regroupés sous "other" (cardinalité bornée)
+    private static String route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String route = ID.matcher(path).replaceAll("/{id}");
+        return ROUTES.contains(route) ? route : "other";
+    }
+}
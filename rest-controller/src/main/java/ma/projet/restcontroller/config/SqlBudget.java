@@ -0,0 +1,103 @@
+package ma.projet.restcontroller.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Budgets de statements SQL par route (app.sql.budgets), vérifiés par RequestTimingFilter à la fin de chaque requête.
+ * Format d'un budget: "[METHODE ]route[?param]:max", ex. "GET /items?categoryId:3"; la forme avec ?param ne
+ * s'applique que si le paramètre est présent et l'emporte sur la route seule.
+ * Dépassement: compteur http.server.sql.budget.exceeded et WARN; en test, assertWithinBudget() fait échouer le test.
+ */
+@Component
+@ConditionalOnProperty(name = "app.latency.enabled", havingValue = "true")
+public class SqlBudget {
+    private static final Logger log = LoggerFactory.getLogger(SqlBudget.class);
+
+    private final List<Budget> budgets = new ArrayList<>();
+    private final Meter.MeterProvider<Counter> exceeded;
+    private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+
+    public SqlBudget(MeterRegistry registry, @Value("${app.sql.budgets:}") List<String> specs) {
+        for (String spec : specs) {
+            if (!spec.isBlank()) budgets.add(Budget.parse(spec.trim()));
+        }
+        // les budgets les plus précis (méthode, paramètre) d'abord
+        budgets.sort(Comparator.comparingInt(Budget::specificity).reversed());
+        this.exceeded = Counter.builder("http.server.sql.budget.exceeded")
+                .description("Requêtes HTTP au-delà de leur budget de statements SQL")
+                .withRegistry(registry);
+    }
+
+    void check(HttpServletRequest request, String route, int statements) {
+        for (Budget b : budgets) {
+            if (!b.matches(request, route)) continue;
+            int max = b.max();
+            if (statements > max) {
+                String query = request.getQueryString() != null ? "?" + request.getQueryString() : "";
+                String violation = request.getMethod() + " " + request.getRequestURI() + query + ": " + statements
+                        + " statements, budget " + max + " (" + b.spec() + ")";
+                violations.add(violation);
+                exceeded.withTags("method", request.getMethod(), "route", route).increment();
+                log.warn("Budget SQL dépassé: {}", violation);
+            }
+            return;
+        }
+    }
+
+    /** API de test: échoue si une requête servie depuis le dernier reset() a dépassé son budget. */
+    public void assertWithinBudget() {
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Budget SQL dépassé:\n" + String.join("\n", violations));
+        }
+    }
+
+    public void reset() {
+        violations.clear();
+    }
+
+    public List<String> violations() {
+        return List.copyOf(violations);
+    }
+
+    private record Budget(String spec, String method, String route, String param, int max) {
+        static Budget parse(String spec) {
+            int colon = spec.lastIndexOf(':');
+            if (colon < 0) throw new IllegalArgumentException("app.sql.budgets: \"route:max\" attendu, reçu " + spec);
+            String key = spec.substring(0, colon).trim();
+            int max = Integer.parseInt(spec.substring(colon + 1).trim());
+            String method = null;
+            int space = key.indexOf(' ');
+            if (space > 0) {
+                method = key.substring(0, space);
+                key = key.substring(space + 1).trim();
+            }
+            int q = key.indexOf('?');
+            return q < 0 ? new Budget(spec, method, key, null, max)
+                    : new Budget(spec, method, key.substring(0, q), key.substring(q + 1), max);
+        }
+
+        boolean matches(HttpServletRequest request, String requestRoute) {
+            return route.equals(requestRoute)
+                    && (method == null || method.equalsIgnoreCase(request.getMethod()))
+                    && (param == null || request.getParameter(param) != null);
+        }
+
+        int specificity() {
+            return (method != null ? 1 : 0) + (param != null ? 2 : 0);
+        }
+    }
+}
@@ -2,18 +2,30 @@ package ma.projet.restcontroller.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "item", indexes = {
         @Index(name = "idx_item_category", columnList = "category_id"),
-        @Index(name = "idx_item_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_item_category_id", columnList = "category_id, id"),
+        // curseur du flux de changements (updated_at, id) > (?, ?), cf. V6__change_feed.sql
+        @Index(name = "idx_item_updated_id", columnList = "updated_at, id"),
+        // filtres / tris de la recherche (index partiels "WHERE stock > 0": V4__item_search_indexes.sql)
+        @Index(name = "idx_item_price_id", columnList = "price, id"),
+        @Index(name = "idx_item_category_price", columnList = "category_id, price, id"),
+        @Index(name = "idx_item_category_updated", columnList = "category_id, updated_at, id"),
         @Index(name = "idx_item_sku", columnList = "sku", unique = true)
 })
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // séquence pooled (blocs de 50 ids, cf. V2__pooled_id_sequences.sql): garde le batching JDBC des INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 64, unique = true)
@@ -42,6 +54,11 @@ public class Item {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt = Instant.now();
 
+    // verrouillage optimiste: UPDATE/DELETE ... WHERE id = ? AND version = ?, ETag des ressources
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @PreUpdate
     @PrePersist
     public void touch() {
@@ -65,4 +82,6 @@ public class Item {
     public void setDescription(String description) { this.description = description; }
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
@@ -0,0 +1,146 @@
+package ma.projet.restcontroller.repository;
+
+import ma.projet.restcontroller.web.dto.Versioned;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lecture partielle (?fields=): seules les colonnes des champs demandés entrent dans le SELECT, la colonne
+ * description (~5 Ko avec heavy-body) n'est donc pas lue de PostgreSQL si elle n'est pas demandée.
+ * Lignes rendues en LinkedHashMap (champs JSON dans l'ordre de la requête), triées par id; les pages lisent en plus
+ * version et updated_at, gardés hors de la Map (Row, validateurs HTTP des listes).
+ */
+@Repository
+public class FieldProjection {
+
+    /** Champs exposés (noms des DTO) et colonnes correspondantes. */
+    public enum Table {
+        ITEM("item", columns("id", "id", "sku", "sku", "name", "name", "price", "price", "stock", "stock",
+                "categoryId", "category_id", "description", "description")),
+        CATEGORY("category", columns("id", "id", "code", "code", "name", "name"));
+
+        private final String name;
+        private final Map<String, String> columns;
+
+        Table(String name, Map<String, String> columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+
+        public boolean hasField(String field) {
+            return columns.containsKey(field);
+        }
+
+        public List<String> fields() {
+            return List.copyOf(columns.keySet());
+        }
+    }
+
+    /** Ligne de page: champs demandés dans la Map (seuls sérialisés), version et updated_at à part. */
+    public static final class Row extends LinkedHashMap<String, Object> implements Versioned {
+        private final long version;
+        private final Instant updatedAt;
+
+        Row(int fields, long version, Instant updatedAt) {
+            super(fields * 2);
+            this.version = version;
+            this.updatedAt = updatedAt;
+        }
+
+        @Override
+        public Long getId() {
+            return ((Number) get("id")).longValue();
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+
+    FieldProjection(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Page sans COUNT (size+1 lignes lues). categoryId: filtre des items (null = tous);
+     * afterId: mode keyset (id > afterId, sans OFFSET), null en pagination par numéro de page.
+     */
+    public Slice<Row> findSlice(Table table, List<String> fields, Long categoryId, Long afterId, Pageable pageable) {
+        StringBuilder sql = new StringBuilder(select(table, fields)).insert("select ".length(), "version, updated_at, ");
+        List<Object> args = new ArrayList<>();
+        String where = " where ";
+        if (categoryId != null) {
+            sql.append(where).append("category_id = ?");
+            args.add(categoryId);
+            where = " and ";
+        }
+        if (afterId != null) {
+            sql.append(where).append("id > ?");
+            args.add(afterId);
+        }
+        sql.append(" order by id limit ? offset ?");
+        args.add(pageable.getPageSize() + 1);
+        args.add(afterId != null ? 0 : pageable.getOffset());
+        List<Row> rows = jdbc.query(sql.toString(), rowMapper(fields), args.toArray());
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    public Optional<Map<String, Object>> findById(Table table, List<String> fields, long id) {
+        return jdbc.query(select(table, fields) + " where id = ?", mapper(fields), id).stream().findFirst();
+    }
+
+    // noms de colonnes issus de Table uniquement (champs validés par l'appelant), jamais de la requête HTTP
+    private static String select(Table table, List<String> fields) {
+        StringBuilder sb = new StringBuilder("select ");
+        for (int i = 0; i < fields.size(); i++) {
+            String column = table.columns.get(fields.get(i));
+            if (column == null) throw new IllegalArgumentException("unknown field: " + fields.get(i));
+            if (i > 0) sb.append(", ");
+            sb.append(column);
+        }
+        return sb.append(" from ").append(table.name).toString();
+    }
+
+    private static RowMapper<Map<String, Object>> mapper(List<String> fields) {
+        return (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) row.put(fields.get(i), rs.getObject(i + 1));
+            return row;
+        };
+    }
+
+    // version, updated_at en tête du SELECT, puis les champs demandés
+    private static RowMapper<Row> rowMapper(List<String> fields) {
+        return (rs, rowNum) -> {
+            Row row = new Row(fields.size(), rs.getLong(1), rs.getTimestamp(2).toInstant());
+            for (int i = 0; i < fields.size(); i++) row.put(fields.get(i), rs.getObject(i + 3));
+            return row;
+        };
+    }
+
+    private static Map<String, String> columns(String... pairs) {
+        Map<String, String> m = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) m.put(pairs[i], pairs[i + 1]);
+        return m;
+    }
+}
@@ -1,16 +1,86 @@
 package ma.projet.restcontroller.repository;
 
+import jakarta.persistence.QueryHint;
 import ma.projet.restcontroller.domain.Item;
+import ma.projet.restcontroller.web.dto.ItemDto;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item>, ItemRepositoryCustom {
     Page<Item> findByCategory_Id(Long categoryId, Pageable pageable);
 
     @Query(value = "select i from Item i join fetch i.category c where c.id = :cid",
            countQuery = "select count(i) from Item i where i.category.id = :cid")
     Page<Item> findByCategoryIdJoinFetch(@Param("cid") Long categoryId, Pageable pageable);
+
+    // Mode sans COUNT (?count=false): Slice lit size+1 lignes pour calculer hasNext
+    Slice<Item> findSliceBy(Pageable pageable);
+
+    Slice<Item> findSliceByCategory_Id(Long categoryId, Pageable pageable);
+
+    @Query("select i from Item i join fetch i.category c where c.id = :cid")
+    Slice<Item> findSliceByCategoryIdJoinFetch(@Param("cid") Long categoryId, Pageable pageable);
+
+    // Projection DTO (app.dto-projection.enabled): lecture directe en ItemDto, sans hydratation d'entité
+    @Transactional(readOnly = true)
+    @Query(value = "select new ma.projet.restcontroller.web.dto.ItemDto(i.id, i.sku, i.name, i.price, i.stock, i.category.id, i.description, i.version, i.updatedAt) from Item i",
+           countQuery = "select count(i) from Item i")
+    Page<ItemDto> findAllDto(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(value = "select new ma.projet.restcontroller.web.dto.ItemDto(i.id, i.sku, i.name, i.price, i.stock, i.category.id, i.description, i.version, i.updatedAt) from Item i where i.category.id = :cid",
+           countQuery = "select count(i) from Item i where i.category.id = :cid")
+    Page<ItemDto> findDtoByCategoryId(@Param("cid") Long categoryId, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select new ma.projet.restcontroller.web.dto.ItemDto(i.id, i.sku, i.name, i.price, i.stock, i.category.id, i.description, i.version, i.updatedAt) from Item i")
+    Slice<ItemDto> findDtoSliceBy(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select new ma.projet.restcontroller.web.dto.ItemDto(i.id, i.sku, i.name, i.price, i.stock, i.category.id, i.description, i.version, i.updatedAt) from Item i where i.category.id = :cid")
+    Slice<ItemDto> findDtoSliceByCategoryId(@Param("cid") Long categoryId, Pageable pageable);
+
+    // Export NDJSON: curseur JDBC (fetch size, forward-only) sur des DTO non managés -> mémoire constante.
+    // A consommer dans une transaction (sinon le driver PostgreSQL charge tout le résultat).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new ma.projet.restcontroller.web.dto.ItemDto(i.id, i.sku, i.name, i.price, i.stock, i.category.id, i.description) from Item i order by i.id")
+    Stream<ItemDto> streamAllDto();
+
+    long countByCategory_Id(Long categoryId);
+
+    @Query("select i.sku from Item i where i.sku in :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    @Query("select i.category.id from Item i where i.id = :id")
+    Optional<Long> findCategoryIdById(@Param("id") Long id);
+
+    // Pagination keyset (seek): id > :after, sans OFFSET ni COUNT
+    Slice<Item> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    Slice<Item> findByCategory_IdAndIdGreaterThanOrderByIdAsc(Long categoryId, Long after, Pageable pageable);
+
+    @Query("select i from Item i join fetch i.category c where c.id = :cid and i.id > :after order by i.id")
+    Slice<Item> findByCategoryIdJoinFetchAfter(@Param("cid") Long categoryId, @Param("after") Long after, Pageable pageable);
+
+    // Validateurs HTTP (ETag / Last-Modified): version lue sans charger l'entité
+    @Query("select new ma.projet.restcontroller.repository.EntityVersion(i.version, i.updatedAt) from Item i where i.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
 }
@@ -0,0 +1,17 @@
+package ma.projet.restcontroller.repository;
+
+import ma.projet.restcontroller.web.dto.ItemDto;
+
+import java.util.Optional;
+
+/**
+ * Écritures conditionnelles (If-Match) en une seule requête SQL, sans SELECT préalable.
+ * Vide si l'id n'existe pas ou si la version ne correspond plus.
+ */
+public interface ItemRepositoryCustom {
+    // renvoie la catégorie avant mise à jour (invalidation du cache de COUNT)
+    Optional<Long> updateIfVersion(Long id, long version, ItemDto dto);
+
+    // renvoie la catégorie de l'item supprimé
+    Optional<Long> deleteIfVersion(Long id, long version);
+}
@@ -0,0 +1,64 @@
+package ma.projet.restcontroller.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.projet.restcontroller.domain.Item;
+import ma.projet.restcontroller.web.dto.ItemDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * SQL direct plutôt qu'un UPDATE JPQL: Hibernate viderait toute la région L2 "items" à chaque
+ * requête de masse; ici seule l'entrée modifiée est évincée (après commit).
+ */
+class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private final JdbcTemplate jdbc;
+    private final EntityManagerFactory emf;
+
+    ItemRepositoryCustomImpl(JdbcTemplate jdbc, EntityManagerFactory emf) {
+        this.jdbc = jdbc;
+        this.emf = emf;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Long> updateIfVersion(Long id, long version, ItemDto dto) {
+        // "from item o": o voit la ligne avant mise à jour -> ancienne catégorie dans le RETURNING.
+        // updated_at: horloge de la JVM comme Item.touch() (même liaison qu'Hibernate pour un Instant), pas now()
+        Optional<Long> previousCategoryId = jdbc.queryForList(
+                "update item i set sku = ?, name = ?, price = ?, stock = ?, category_id = ?, description = ?, "
+                        + "updated_at = ?, version = i.version + 1 "
+                        + "from item o where o.id = i.id and i.id = ? and i.version = ? returning o.category_id",
+                Long.class,
+                dto.getSku(), dto.getName(), dto.getPrice() != null ? dto.getPrice() : BigDecimal.ZERO, dto.getStock(),
+                dto.getCategoryId(), dto.getDescription(), Instant.now().atOffset(ZoneOffset.UTC), id, version).stream().findFirst();
+        if (previousCategoryId.isPresent()) evict(id);
+        return previousCategoryId;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Long> deleteIfVersion(Long id, long version) {
+        Optional<Long> categoryId = jdbc.queryForList(
+                "delete from item where id = ? and version = ? returning category_id", Long.class, id, version)
+                .stream().findFirst();
+        if (categoryId.isPresent()) evict(id);
+        return categoryId;
+    }
+
+    private void evict(Long id) {
+        emf.getCache().evict(Item.class, id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emf.getCache().evict(Item.class, id);
+            }
+        });
+    }
+}
@@ -3,42 +3,99 @@ package ma.projet.restcontroller.web;
 import ma.projet.restcontroller.domain.Category;
 import ma.projet.restcontroller.domain.Item;
 import ma.projet.restcontroller.repository.CategoryRepository;
+import ma.projet.restcontroller.repository.EntityVersion;
+import ma.projet.restcontroller.repository.FieldProjection;
+import ma.projet.restcontroller.repository.ItemCountCache;
 import ma.projet.restcontroller.repository.ItemRepository;
 import ma.projet.restcontroller.web.dto.CategoryDto;
+import ma.projet.restcontroller.web.dto.ChangesResponse;
 import ma.projet.restcontroller.web.dto.ItemDto;
 import ma.projet.restcontroller.web.dto.PageResponse;
 import ma.projet.restcontroller.web.mapper.DtoMappers;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.net.URI;
 import java.util.Optional;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/categories")
 public class CategoryController {
+    // pages OFFSET triées par id: un UPDATE (nouvelle version de ligne) ne réordonne pas les pages en cache
+    private static final Sort BY_ID = Sort.by("id");
+
     private final CategoryRepository categoryRepository;
     private final ItemRepository itemRepository;
+    private final ItemCountCache countCache;
+    private final ResponseCache responseCache;
+    private final FieldSelection fieldSelection;
+    private final ChangeFeed changeFeed;
+
+    @Value("${app.dto-projection.enabled:false}")
+    private boolean dtoProjectionEnabled;
 
-    public CategoryController(CategoryRepository categoryRepository, ItemRepository itemRepository) {
+    public CategoryController(CategoryRepository categoryRepository, ItemRepository itemRepository, ItemCountCache countCache,
+                              ResponseCache responseCache, FieldSelection fieldSelection, ChangeFeed changeFeed) {
         this.categoryRepository = categoryRepository;
         this.itemRepository = itemRepository;
+        this.countCache = countCache;
+        this.responseCache = responseCache;
+        this.fieldSelection = fieldSelection;
+        this.changeFeed = changeFeed;
     }
 
     @GetMapping
-    public PageResponse<CategoryDto> list(@RequestParam(defaultValue = "0") int page,
-                               @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    public PageResponse<?> list(@RequestParam(defaultValue = "0") int page,
+                               @RequestParam(defaultValue = "20") int size,
+                               @RequestParam(defaultValue = "true") boolean count,
+                               @RequestParam(required = false) String fields,
+                               ServletWebRequest request) {
+        PageResponse<?> body = page(page, size, count, fields);
+        return HttpValidators.notModified(request, body) ? null : body;
+    }
+
+    private PageResponse<?> page(int page, int size, boolean count, String fields) {
+        if (fields != null) {
+            return fieldSelection.page(FieldProjection.Table.CATEGORY, fields, null, page, size, null, count, categoryRepository::count);
+        }
+        Pageable pageable = PageRequest.of(page, size, BY_ID);
+        if (!count) return PageResponse.from(categoryRepository.findSliceBy(pageable), DtoMappers::toDto);
+        if (dtoProjectionEnabled) return PageResponse.from(categoryRepository.findAllDto(pageable), Function.identity());
         Page<Category> p = categoryRepository.findAll(pageable);
         return PageResponse.from(p, DtoMappers::toDto);
     }
 
+    // synchronisation incrémentale: modifications et suppressions après ?since= (nextCursor de la réponse précédente)
+    @GetMapping("/changes")
+    public ChangesResponse<CategoryDto> changes(@RequestParam(required = false) String since,
+                                                @RequestParam(defaultValue = "500") int limit) {
+        return changeFeed.categories(since, limit);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDto> get(@PathVariable Long id) {
+    public ResponseEntity<?> get(@PathVariable Long id, @RequestParam(required = false) String fields, WebRequest request) {
+        Optional<EntityVersion> version = categoryRepository.findVersionById(id);
+        if (version.isEmpty()) return ResponseEntity.notFound().build();
+        if (HttpValidators.notModified(request, id, version.get())) return null;
+        if (fields != null) {
+            return fieldSelection.one(FieldProjection.Table.CATEGORY, fields, id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return categoryRepository.findById(id)
                 .map(c -> ResponseEntity.ok(DtoMappers.toDto(c)))
                 .orElse(ResponseEntity.notFound().build());
@@ -50,34 +107,87 @@ public class CategoryController {
         c.setCode(dto.getCode());
         c.setName(dto.getName());
         Category saved = categoryRepository.save(c);
+        responseCache.categoryCreated();
         return ResponseEntity.created(URI.create("/categories/" + saved.getId())).body(DtoMappers.toDto(saved));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<CategoryDto> update(@PathVariable Long id, @Validated @RequestBody CategoryDto dto) {
+    public ResponseEntity<CategoryDto> update(@PathVariable Long id, @Validated @RequestBody CategoryDto dto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         Optional<Category> opt = categoryRepository.findById(id);
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
         Category c = opt.get();
+        // catégories: peu d'écritures, chemin JPA (le flush vérifie aussi la version)
+        if (!matches(c, ifMatch)) return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         c.setCode(dto.getCode());
         c.setName(dto.getName());
-        return ResponseEntity.ok(DtoMappers.toDto(categoryRepository.save(c)));
+        Category saved = categoryRepository.save(c);
+        responseCache.categoryUpdated(id);
+        return ResponseEntity.ok().eTag(HttpValidators.etag(id, saved.getVersion(), accept)).body(DtoMappers.toDto(saved));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!categoryRepository.existsById(id)) return ResponseEntity.notFound().build();
-        categoryRepository.deleteById(id);
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Category> opt = categoryRepository.findById(id);
+        if (opt.isEmpty()) return ResponseEntity.notFound().build();
+        if (!matches(opt.get(), ifMatch)) return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        categoryRepository.delete(opt.get());
+        countCache.invalidate(id);
+        responseCache.categoryDeleted(id);
         return ResponseEntity.noContent().build();
     }
 
+    private static boolean matches(Category c, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) return true;
+        Long version = HttpValidators.ifMatchVersion(c.getId(), ifMatch);
+        return version != null && version == c.getVersion();
+    }
+
     // relation: /categories/{id}/items
     @GetMapping("/{id}/items")
-    public ResponseEntity<PageResponse<ItemDto>> itemsOfCategory(@PathVariable Long id,
-                                                      @RequestParam(defaultValue = "0") int page,
-                                                      @RequestParam(defaultValue = "20") int size) {
-        if (!categoryRepository.existsById(id)) return ResponseEntity.notFound().build();
-        Pageable pageable = PageRequest.of(page, size);
+    public PageResponse<?> itemsOfCategory(@PathVariable Long id,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "true") boolean count,
+                                           @RequestParam(required = false) String fields,
+                                           ServletWebRequest request) {
+        // findById plutôt que existsById: servi par le cache L2 des catégories
+        if (categoryRepository.findById(id).isEmpty()) throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        PageResponse<?> body = itemsPage(id, page, size, after, count, fields);
+        // pas de ResponseEntity: HttpEntityMethodProcessor réévaluerait If-Modified-Since sur le Last-Modified de la page
+        return HttpValidators.notModified(request, body) ? null : body;
+    }
+
+    private PageResponse<?> itemsPage(Long id, int page, int size, String after, boolean count, String fields) {
+        if (fields != null) {
+            return fieldSelection.page(FieldProjection.Table.ITEM, fields, id, page, size, after, count,
+                    () -> countCache.isEnabled() ? countCache.count(id) : itemRepository.countByCategory_Id(id));
+        }
+        if (after != null) {
+            Slice<Item> s = itemRepository.findByCategory_IdAndIdGreaterThanOrderByIdAsc(
+                    id, KeysetCursor.decode(after), PageRequest.of(0, size));
+            return PageResponse.from(s, DtoMappers::toDto, i -> KeysetCursor.encode(i.getId()));
+        }
+        Pageable pageable = PageRequest.of(page, size, BY_ID);
+        if (dtoProjectionEnabled) {
+            if (count && !countCache.isEnabled()) {
+                return PageResponse.from(itemRepository.findDtoByCategoryId(id, pageable), Function.identity());
+            }
+            Slice<ItemDto> s = itemRepository.findDtoSliceByCategoryId(id, pageable);
+            if (!count) return PageResponse.from(s, Function.identity());
+            Page<ItemDto> p = new PageImpl<>(s.getContent(), pageable, countCache.count(id));
+            return PageResponse.from(p, Function.identity());
+        }
+        if (!count || countCache.isEnabled()) {
+            Slice<Item> s = itemRepository.findSliceByCategory_Id(id, pageable);
+            if (!count) return PageResponse.from(s, DtoMappers::toDto);
+            Page<Item> p = new PageImpl<>(s.getContent(), pageable, countCache.count(id));
+            return PageResponse.from(p, DtoMappers::toDto);
+        }
         Page<Item> p = itemRepository.findByCategory_Id(id, pageable);
-        return ResponseEntity.ok(PageResponse.from(p, DtoMappers::toDto));
+        return PageResponse.from(p, DtoMappers::toDto);
     }
 }
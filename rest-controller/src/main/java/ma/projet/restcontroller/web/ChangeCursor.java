@@ -0,0 +1,34 @@
+package ma.projet.restcontroller.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur opaque du flux de changements: position (instant, id) de la dernière entrée lue, instant tel que lu de
+ * la colonne (microsecondes). Une valeur absente ou vide correspond au début du flux.
+ */
+record ChangeCursor(LocalDateTime at, long id) {
+    static final ChangeCursor START = new ChangeCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((at + "," + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static ChangeCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int comma = raw.indexOf(',');
+            if (comma < 0) throw new IllegalArgumentException(raw);
+            return new ChangeCursor(LocalDateTime.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor", e);
+        }
+    }
+}
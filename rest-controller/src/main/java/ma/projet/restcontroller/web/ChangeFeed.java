@@ -0,0 +1,66 @@
+package ma.projet.restcontroller.web;
+
+import ma.projet.restcontroller.repository.ChangeRows;
+import ma.projet.restcontroller.web.dto.CategoryDto;
+import ma.projet.restcontroller.web.dto.ChangeDto;
+import ma.projet.restcontroller.web.dto.ChangesResponse;
+import ma.projet.restcontroller.web.dto.ItemDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Synchronisation incrémentale (GET /items/changes, GET /categories/changes): lots d'au plus limit entrées
+ * (modifications et suppressions) après le curseur ?since=. Seuls les changements plus anciens que
+ * app.changes.lag sont servis: une transaction validée après la lecture d'un lot ne doit pas porter un instant
+ * déjà dépassé par le curseur (updated_at est fixé avant le commit).
+ */
+@Component
+public class ChangeFeed {
+    private final ChangeRows rows;
+
+    @Value("${app.changes.lag:5s}")
+    private Duration lag;
+
+    @Value("${app.changes.max-limit:1000}")
+    private int maxLimit;
+
+    public ChangeFeed(ChangeRows rows) {
+        this.rows = rows;
+    }
+
+    ChangesResponse<ItemDto> items(String since, int limit) {
+        ChangeCursor from = ChangeCursor.decode(since);
+        int n = limit(limit);
+        return response(rows.items(from.at(), from.id(), before(), n + 1), from, n);
+    }
+
+    ChangesResponse<CategoryDto> categories(String since, int limit) {
+        ChangeCursor from = ChangeCursor.decode(since);
+        int n = limit(limit);
+        return response(rows.categories(from.at(), from.id(), before(), n + 1), from, n);
+    }
+
+    private int limit(int limit) {
+        if (limit < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        return Math.min(limit, maxLimit);
+    }
+
+    // horloge et fuseau de la JVM, ceux de updated_at (le pilote JDBC aligne le fuseau de session sur la JVM)
+    private LocalDateTime before() {
+        return LocalDateTime.now().minus(lag);
+    }
+
+    private static <T> ChangesResponse<T> response(List<ChangeDto<T>> changes, ChangeCursor from, int limit) {
+        boolean hasNext = changes.size() > limit;
+        List<ChangeDto<T>> content = hasNext ? changes.subList(0, limit) : changes;
+        if (content.isEmpty()) return new ChangesResponse<>(content, false, from.encode());
+        ChangeDto<T> last = content.get(content.size() - 1);
+        return new ChangesResponse<>(content, hasNext, new ChangeCursor(last.getChangedAt(), last.getId()).encode());
+    }
+}
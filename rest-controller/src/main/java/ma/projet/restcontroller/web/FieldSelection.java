@@ -0,0 +1,66 @@
+package ma.projet.restcontroller.web;
+
+import ma.projet.restcontroller.repository.FieldProjection;
+import ma.projet.restcontroller.web.dto.PageResponse;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Réponses partielles: ?fields=sku,price,stock sur les items et les catégories (listes et ressource).
+ * id est toujours renvoyé (curseur keyset, invalidation de ResponseCache); champ inconnu -> 400.
+ */
+@Component
+public class FieldSelection {
+    private final FieldProjection projection;
+
+    public FieldSelection(FieldProjection projection) {
+        this.projection = projection;
+    }
+
+    static List<String> parse(String fields, FieldProjection.Table table) {
+        List<String> selected = new ArrayList<>();
+        selected.add("id");
+        for (String f : fields.split(",")) {
+            String field = f.trim();
+            if (field.isEmpty() || selected.contains(field)) continue;
+            if (!table.hasField(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown field '" + field + "', expected one of " + table.fields());
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /**
+     * Même pagination que les listes complètes: after (keyset), count=false (sans totaux) ou totaux fournis
+     * par total (cache de COUNT ou count(*)), une requête de page en size+1 lignes dans tous les cas.
+     */
+    PageResponse<FieldProjection.Row> page(FieldProjection.Table table, String fields, Long categoryId,
+                                           int page, int size, String after, boolean count, LongSupplier total) {
+        List<String> selected = parse(fields, table);
+        if (after != null) {
+            Slice<FieldProjection.Row> s = projection.findSlice(table, selected, categoryId, KeysetCursor.decode(after), PageRequest.of(0, size));
+            return PageResponse.from(s, Function.identity(), row -> KeysetCursor.encode(row.getId()));
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<FieldProjection.Row> s = projection.findSlice(table, selected, categoryId, null, pageable);
+        if (!count) return PageResponse.from(s, Function.identity());
+        return PageResponse.from(new PageImpl<>(s.getContent(), pageable, total.getAsLong()), Function.identity());
+    }
+
+    Optional<Map<String, Object>> one(FieldProjection.Table table, String fields, long id) {
+        return projection.findById(table, parse(fields, table), id);
+    }
+}
@@ -0,0 +1,133 @@
+package ma.projet.restcontroller.web;
+
+import ma.projet.restcontroller.repository.EntityVersion;
+import ma.projet.restcontroller.web.dto.PageResponse;
+import ma.projet.restcontroller.web.dto.Versioned;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Requêtes conditionnelles: GET (If-None-Match / If-Modified-Since -> 304) et PUT/DELETE (If-Match -> 412).
+ * ETag fort: "<id>-<version>" pour une ressource (@Version), "<empreinte des lignes>-<hash query>" pour une liste,
+ * suffixé du format négocié sur Accept hors JSON ("-x-jackson-smile", "-cbor", "-x-protobuf"): deux représentations
+ * d'une même version n'ont pas le même ETag fort. If-Match ne compare que la version, quel que soit le suffixe.
+ * Ressource: décidé avant le chargement de l'entité (requête de version), en cas de 304 ni lecture complète ni
+ * sérialisation. Liste: décidé sur les lignes déjà chargées pour la page (PageVersion), avant la sérialisation,
+ * sans requête supplémentaire; ETag et Last-Modified toujours émis, 304 sur If-None-Match seulement.
+ */
+final class HttpValidators {
+    // ordre des convertisseurs (BinaryFormatsConfig): JSON par défaut, puis Smile, CBOR, Protobuf
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType("application/x-jackson-smile"), MediaType.APPLICATION_CBOR,
+            ProtobufItemsHttpMessageConverter.PROTOBUF);
+
+    private HttpValidators() {}
+
+    // true: 304 déjà positionné, la méthode web doit retourner null
+    static boolean notModified(WebRequest request, Long id, EntityVersion version) {
+        return request.checkNotModified(etag(id, version.version(), request.getHeader(HttpHeaders.ACCEPT)),
+                lastModified(version.lastModified()));
+    }
+
+    static String etag(Long id, long version, String accept) {
+        return "\"" + id + "-" + version + format(accept) + "\"";
+    }
+
+    /**
+     * Version attendue par If-Match ("<id>-<version>[-<format>]", ETag faible accepté), ou null si l'en-tête
+     * ne désigne pas une version de cette ressource (-> 412). "*" est traité par l'appelant.
+     */
+    static Long ifMatchVersion(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) return null;
+        String prefix = id + "-";
+        tag = tag.substring(1, tag.length() - 1);
+        if (!tag.startsWith(prefix)) return null;
+        int end = tag.indexOf('-', prefix.length());
+        try {
+            return Long.valueOf(tag.substring(prefix.length(), end < 0 ? tag.length() : end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static boolean notModified(ServletWebRequest request, PageResponse<?> page) {
+        PageVersion version = new PageVersion();
+        for (Object row : page.getContent()) {
+            Versioned v = (Versioned) row;
+            version.row(v.getId(), v.getVersion(), v.getUpdatedAt());
+        }
+        version.page(page.getPage(), page.getSize(), page.getTotalElements(), page.isHasNext(), page.getNextCursor());
+        return notModified(request, version);
+    }
+
+    /**
+     * Last-Modified (max(updated_at) de la page) est seulement informatif: updated_at est posé avant le commit, une
+     * ligne plus ancienne validée après coup ne le ferait pas avancer. If-Modified-Since n'obtient donc pas de 304.
+     */
+    static boolean notModified(ServletWebRequest request, PageVersion version) {
+        String query = request.getRequest().getQueryString();
+        String etag = Long.toHexString(version.hash) + "-" + Integer.toHexString(query != null ? query.hashCode() : 0)
+                + format(request.getHeader(HttpHeaders.ACCEPT));
+        if (version.lastModified != null) {
+            request.getResponse().setDateHeader(HttpHeaders.LAST_MODIFIED, version.lastModified.toEpochMilli());
+        }
+        return request.checkNotModified(etag);
+    }
+
+    /** Empreinte d'une page: (id, version) de chaque ligne dans l'ordre, puis les champs de page; max(updated_at). */
+    static final class PageVersion {
+        private long hash = 1;
+        private Instant lastModified;
+
+        void row(long id, long version, Instant updatedAt) {
+            mix(id);
+            mix(version);
+            if (updatedAt != null && (lastModified == null || updatedAt.isAfter(lastModified))) lastModified = updatedAt;
+        }
+
+        void page(int page, int size, long totalElements, boolean hasNext, String nextCursor) {
+            mix(page);
+            mix(size);
+            mix(totalElements);
+            mix(hasNext ? 1 : 0);
+            mix(nextCursor != null ? nextCursor.hashCode() : 0);
+        }
+
+        private void mix(long value) {
+            hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+    }
+
+    // suffixe du format que Spring MVC choisira pour cet Accept: type accepté le plus précis, puis ordre des convertisseurs
+    static String format(String accept) {
+        if (accept == null || accept.isBlank()) return "";
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            for (MediaType f : FORMATS) {
+                if (type.isCompatibleWith(f)) return f == FORMATS.get(0) ? "" : "-" + f.getSubtype();
+            }
+        }
+        return "";
+    }
+
+    private static long lastModified(Instant t) {
+        return t != null ? t.toEpochMilli() : -1;
+    }
+}
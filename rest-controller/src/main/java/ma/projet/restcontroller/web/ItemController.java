@@ -3,41 +3,129 @@ package ma.projet.restcontroller.web;
 import ma.projet.restcontroller.domain.Category;
 import ma.projet.restcontroller.domain.Item;
 import ma.projet.restcontroller.repository.CategoryRepository;
+import ma.projet.restcontroller.repository.EntityVersion;
+import ma.projet.restcontroller.repository.FieldProjection;
+import ma.projet.restcontroller.repository.ItemCountCache;
+import ma.projet.restcontroller.repository.ItemFilter;
 import ma.projet.restcontroller.repository.ItemRepository;
+import ma.projet.restcontroller.repository.ItemTextSearch;
+import ma.projet.restcontroller.web.dto.BatchResult;
+import ma.projet.restcontroller.web.dto.ChangesResponse;
 import ma.projet.restcontroller.web.dto.ItemDto;
+import ma.projet.restcontroller.web.dto.ItemHitDto;
 import ma.projet.restcontroller.web.dto.PageResponse;
 import ma.projet.restcontroller.web.mapper.DtoMappers;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
+    // pages OFFSET triées par id: un UPDATE (nouvelle version de ligne) ne réordonne pas les pages en cache
+    private static final Sort BY_ID = Sort.by("id");
+
     private final ItemRepository itemRepository;
     private final CategoryRepository categoryRepository;
+    private final ItemCountCache countCache;
+    private final ItemBatchWriter batchWriter;
+    private final ItemExporter exporter;
+    private final ResponseCache responseCache;
+    private final FieldSelection fieldSelection;
+    private final ItemListWriter listWriter;
+    private final ItemSearch search;
+    private final ItemTextSearch textSearch;
+    private final ChangeFeed changeFeed;
 
     @Value("${app.items.join-fetch.enabled:false}")
     private boolean joinFetchEnabled;
 
-    public ItemController(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+    @Value("${app.dto-projection.enabled:false}")
+    private boolean dtoProjectionEnabled;
+
+    @Value("${app.items.fast-json.enabled:false}")
+    private boolean fastJsonEnabled;
+
+    public ItemController(ItemRepository itemRepository, CategoryRepository categoryRepository, ItemCountCache countCache,
+                          ItemBatchWriter batchWriter, ItemExporter exporter, ResponseCache responseCache,
+                          FieldSelection fieldSelection, ItemListWriter listWriter, ItemSearch search,
+                          ItemTextSearch textSearch, ChangeFeed changeFeed) {
         this.itemRepository = itemRepository;
         this.categoryRepository = categoryRepository;
+        this.countCache = countCache;
+        this.batchWriter = batchWriter;
+        this.exporter = exporter;
+        this.responseCache = responseCache;
+        this.fieldSelection = fieldSelection;
+        this.listWriter = listWriter;
+        this.search = search;
+        this.textSearch = textSearch;
+        this.changeFeed = changeFeed;
     }
 
     @GetMapping
-    public PageResponse<ItemDto> list(@RequestParam(required = false) Long categoryId,
+    public PageResponse<?> list(@RequestParam(required = false) Long categoryId,
                            @RequestParam(defaultValue = "0") int page,
-                           @RequestParam(defaultValue = "20") int size) {
-        Pageable pageable = PageRequest.of(page, size);
+                           @RequestParam(defaultValue = "20") int size,
+                           @RequestParam(required = false) String after,
+                           @RequestParam(defaultValue = "true") boolean count,
+                           @RequestParam(required = false) String fields,
+                           @RequestParam(required = false) BigDecimal minPrice,
+                           @RequestParam(required = false) BigDecimal maxPrice,
+                           @RequestParam(defaultValue = "false") boolean inStock,
+                           @RequestParam(required = false) String updatedSince,
+                           @RequestParam(required = false) String sort,
+                           ServletWebRequest request) throws IOException {
+        ItemFilter filter = ItemSearch.filter(categoryId, minPrice, maxPrice, inStock, updatedSince);
+        if (fastJsonEnabled && !filter.isFiltered() && sort == null && fields == null
+                && ItemListWriter.acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            // corps écrit directement (ItemJsonWriter), validateurs compris: null = rien à convertir
+            listWriter.write(categoryId, page, size, after, count, request);
+            return null;
+        }
+        PageResponse<?> body = page(filter, sort, fields, categoryId, page, size, after, count);
+        return HttpValidators.notModified(request, body) ? null : body;
+    }
+
+    private PageResponse<?> page(ItemFilter filter, String sort, String fields, Long categoryId,
+                                 int page, int size, String after, boolean count) {
+        if (filter.isFiltered() || sort != null) {
+            if (fields != null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields cannot be combined with filters or sort");
+            return search.page(filter, sort, page, size, after, count);
+        }
+        if (fields != null) {
+            return fieldSelection.page(FieldProjection.Table.ITEM, fields, categoryId, page, size, after, count, () -> countItems(categoryId));
+        }
+        if (after != null) return listAfter(categoryId, KeysetCursor.decode(after), size);
+        Pageable pageable = PageRequest.of(page, size, BY_ID);
+        if (dtoProjectionEnabled) return listProjected(categoryId, pageable, count);
+        if (!count || countCache.isEnabled()) {
+            Slice<Item> s = listSlice(categoryId, pageable);
+            if (!count) return PageResponse.from(s, DtoMappers::toDto);
+            return PageResponse.from(new PageImpl<>(s.getContent(), pageable, countCache.count(categoryId)), DtoMappers::toDto);
+        }
         Page<Item> p;
         if (categoryId != null) {
             p = joinFetchEnabled
@@ -49,8 +137,84 @@ public class ItemController {
         return PageResponse.from(p, DtoMappers::toDto);
     }
 
+    // app.dto-projection.enabled: "select new ItemDto(...)", pas d'entité managée ni de mapping
+    private PageResponse<ItemDto> listProjected(Long categoryId, Pageable pageable, boolean count) {
+        if (!count || countCache.isEnabled()) {
+            Slice<ItemDto> s = categoryId != null
+                    ? itemRepository.findDtoSliceByCategoryId(categoryId, pageable)
+                    : itemRepository.findDtoSliceBy(pageable);
+            if (!count) return PageResponse.from(s, Function.identity());
+            return PageResponse.from(new PageImpl<>(s.getContent(), pageable, countCache.count(categoryId)), Function.identity());
+        }
+        Page<ItemDto> p = categoryId != null
+                ? itemRepository.findDtoByCategoryId(categoryId, pageable)
+                : itemRepository.findAllDto(pageable);
+        return PageResponse.from(p, Function.identity());
+    }
+
+    private long countItems(Long categoryId) {
+        if (countCache.isEnabled()) return countCache.count(categoryId);
+        return categoryId != null ? itemRepository.countByCategory_Id(categoryId) : itemRepository.count();
+    }
+
+    // ?count=false ou cache de COUNT actif: pas de requête count(*)
+    private Slice<Item> listSlice(Long categoryId, Pageable pageable) {
+        if (categoryId != null) {
+            return joinFetchEnabled
+                    ? itemRepository.findSliceByCategoryIdJoinFetch(categoryId, pageable)
+                    : itemRepository.findSliceByCategory_Id(categoryId, pageable);
+        }
+        return itemRepository.findSliceBy(pageable);
+    }
+
+    // mode keyset: ?after=<curseur> (vide pour la première page)
+    private PageResponse<ItemDto> listAfter(Long categoryId, long afterId, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Item> s;
+        if (categoryId != null) {
+            s = joinFetchEnabled
+                    ? itemRepository.findByCategoryIdJoinFetchAfter(categoryId, afterId, pageable)
+                    : itemRepository.findByCategory_IdAndIdGreaterThanOrderByIdAsc(categoryId, afterId, pageable);
+        } else {
+            s = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return PageResponse.from(s, DtoMappers::toDto, i -> KeysetCursor.encode(i.getId()));
+    }
+
+    // export complet en NDJSON, écrit au fil du curseur (pas de page, pas de COUNT)
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(exporter::writeNdjson);
+    }
+
+    // recherche texte classée (nom, description, sku), champs légers, sans COUNT ni ETag
+    @GetMapping("/search")
+    public PageResponse<ItemHitDto> search(@RequestParam(required = false) String q,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size) {
+        if (q == null || q.isBlank()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+        PageResponse<ItemHitDto> hits = PageResponse.from(textSearch.search(q.strip(), PageRequest.of(page, size)), Function.identity());
+        hits.setMaxResults(ItemTextSearch.MAX_RESULTS);
+        return hits;
+    }
+
+    // synchronisation incrémentale: modifications et suppressions après ?since= (nextCursor de la réponse précédente)
+    @GetMapping("/changes")
+    public ChangesResponse<ItemDto> changes(@RequestParam(required = false) String since,
+                                            @RequestParam(defaultValue = "500") int limit) {
+        return changeFeed.items(since, limit);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ItemDto> get(@PathVariable Long id) {
+    public ResponseEntity<?> get(@PathVariable Long id, @RequestParam(required = false) String fields, WebRequest request) {
+        Optional<EntityVersion> version = itemRepository.findVersionById(id);
+        if (version.isEmpty()) return ResponseEntity.notFound().build();
+        if (HttpValidators.notModified(request, id, version.get())) return null;
+        if (fields != null) {
+            return fieldSelection.one(FieldProjection.Table.ITEM, fields, id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return itemRepository.findById(id)
                 .map(i -> ResponseEntity.ok(DtoMappers.toDto(i)))
                 .orElse(ResponseEntity.notFound().build());
@@ -63,28 +227,101 @@ public class ItemController {
         Item i = new Item();
         copy(dto, i, category.get());
         Item saved = itemRepository.save(i);
+        countCache.invalidate(dto.getCategoryId());
+        responseCache.itemCreated(dto.getCategoryId());
         return ResponseEntity.created(URI.create("/items/" + saved.getId())).body(DtoMappers.toDto(saved));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ItemDto> update(@PathVariable Long id, @Validated @RequestBody ItemDto dto) {
+    public ResponseEntity<ItemDto> update(@PathVariable Long id, @Validated @RequestBody ItemDto dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) return updateIfMatch(id, dto, ifMatch, accept);
         Optional<Item> opt = itemRepository.findById(id);
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
         Optional<Category> category = categoryRepository.findById(dto.getCategoryId());
         if (category.isEmpty()) return ResponseEntity.badRequest().build();
         Item i = opt.get();
+        Long previousCategoryId = i.getCategory().getId();
         copy(dto, i, category.get());
-        return ResponseEntity.ok(DtoMappers.toDto(itemRepository.save(i)));
+        Item saved = itemRepository.save(i);
+        if (!previousCategoryId.equals(dto.getCategoryId())) {
+            countCache.invalidate(previousCategoryId);
+            countCache.invalidate(dto.getCategoryId());
+        }
+        responseCache.itemUpdated(id, previousCategoryId, dto.getCategoryId());
+        return ResponseEntity.ok().eTag(HttpValidators.etag(id, saved.getVersion(), accept)).body(DtoMappers.toDto(saved));
+    }
+
+    // If-Match: un seul UPDATE ... WHERE id = ? AND version = ?, 412 si la version a changé entre-temps
+    private ResponseEntity<ItemDto> updateIfMatch(Long id, ItemDto dto, String ifMatch, String accept) {
+        if (categoryRepository.findById(dto.getCategoryId()).isEmpty()) return ResponseEntity.badRequest().build();
+        Long version = HttpValidators.ifMatchVersion(id, ifMatch);
+        Optional<Long> previousCategoryId = version != null ? itemRepository.updateIfVersion(id, version, dto) : Optional.empty();
+        if (previousCategoryId.isEmpty()) return preconditionFailedOrNotFound(id);
+        if (!previousCategoryId.get().equals(dto.getCategoryId())) {
+            countCache.invalidate(previousCategoryId.get());
+            countCache.invalidate(dto.getCategoryId());
+        }
+        responseCache.itemUpdated(id, previousCategoryId.get(), dto.getCategoryId());
+        dto.setId(id);
+        if (dto.getPrice() == null) dto.setPrice(BigDecimal.ZERO);
+        return ResponseEntity.ok().eTag(HttpValidators.etag(id, version + 1, accept)).body(dto);
+    }
+
+    private <T> ResponseEntity<T> preconditionFailedOrNotFound(Long id) {
+        return itemRepository.findVersionById(id).isPresent()
+                ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()
+                : ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!itemRepository.existsById(id)) return ResponseEntity.notFound().build();
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            Long version = HttpValidators.ifMatchVersion(id, ifMatch);
+            Optional<Long> categoryId = version != null ? itemRepository.deleteIfVersion(id, version) : Optional.empty();
+            if (categoryId.isEmpty()) return preconditionFailedOrNotFound(id);
+            countCache.invalidate(categoryId.get());
+            responseCache.itemDeleted(categoryId.get());
+            return ResponseEntity.noContent().build();
+        }
+        Optional<Long> categoryId = itemRepository.findCategoryIdById(id);
+        if (categoryId.isEmpty()) return ResponseEntity.notFound().build();
         itemRepository.deleteById(id);
+        countCache.invalidate(categoryId.get());
+        responseCache.itemDeleted(categoryId.get());
         return ResponseEntity.noContent().build();
     }
 
-    private static void copy(ItemDto dto, Item i, Category category) {
+    // lots: tableau JSON ou NDJSON (un ItemDto par ligne), résultat par ligne
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchResult createBatch(@RequestBody List<ItemDto> dtos) {
+        return batchWritten(batchWriter.create(dtos));
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchResult createBatchNdjson(InputStream body) throws IOException {
+        return batchWritten(batchWriter.create(batchWriter.readNdjson(body)));
+    }
+
+    @PutMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchResult updateBatch(@RequestBody List<ItemDto> dtos) {
+        return batchWritten(batchWriter.update(dtos));
+    }
+
+    @PutMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchResult updateBatchNdjson(InputStream body) throws IOException {
+        return batchWritten(batchWriter.update(batchWriter.readNdjson(body)));
+    }
+
+    // invalidation après la transaction du lot (commit fait au retour de ItemBatchWriter)
+    private BatchResult batchWritten(BatchResult result) {
+        responseCache.itemsChanged();
+        return result;
+    }
+
+    static void copy(ItemDto dto, Item i, Category category) {
         i.setSku(dto.getSku());
         i.setName(dto.getName());
         i.setPrice(dto.getPrice() != null ? dto.getPrice() : BigDecimal.ZERO);
@@ -0,0 +1,229 @@
+package ma.projet.restcontroller.web;
+
+import ma.projet.restcontroller.web.dto.ItemDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Écriture JSON d'une page d'items sans DTO, sans PageResponse ni Jackson: noms de champs pré-encodés,
+ * chaînes encodées en UTF-8 caractère par caractère dans un tampon réutilisé (pool borné), agrandi si besoin.
+ * Rien n'est écrit avant writeTo(), appelé une fois la page complète: une erreur pendant la lecture des lignes
+ * ou le COUNT laisse la réponse vierge (500 possible) au lieu d'un 200 tronqué. Sortie identique octet pour octet à celle de Jackson (configuration Spring Boot) pour
+ * {@code PageResponse<ItemDto>}: ordre des champs, description null écrite, nextCursor omis si null, échappements
+ * \" \\ \b \t \n \f \r, \\uXXXX pour les autres caractères de contrôle et pour chaque demi-caractère
+ * d'une paire de substitution (hors BMP), prix par BigDecimal.toString().
+ */
+public final class ItemJsonWriter implements Closeable {
+    private static final int BUFFER_SIZE = 16384;
+    // tampons agrandis au-delà (pages très larges) laissés au GC plutôt que retenus par le pool
+    private static final int MAX_POOLED_SIZE = 262144;
+    private static final ArrayBlockingQueue<byte[]> BUFFERS = new ArrayBlockingQueue<>(64);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] CONTENT = bytes("{\"content\":[");
+    private static final byte[] ID = bytes("{\"id\":");
+    private static final byte[] SKU = bytes(",\"sku\":");
+    private static final byte[] NAME = bytes(",\"name\":");
+    private static final byte[] PRICE = bytes(",\"price\":");
+    private static final byte[] STOCK = bytes(",\"stock\":");
+    private static final byte[] CATEGORY_ID = bytes(",\"categoryId\":");
+    private static final byte[] DESCRIPTION = bytes(",\"description\":");
+    private static final byte[] PAGE = bytes("],\"page\":");
+    private static final byte[] SIZE = bytes(",\"size\":");
+    private static final byte[] TOTAL_ELEMENTS = bytes(",\"totalElements\":");
+    private static final byte[] TOTAL_PAGES = bytes(",\"totalPages\":");
+    private static final byte[] HAS_NEXT = bytes(",\"hasNext\":");
+    private static final byte[] NEXT_CURSOR = bytes(",\"nextCursor\":");
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+
+    private byte[] buf;
+    private int pos;
+    private int items;
+
+    public ItemJsonWriter() {
+        byte[] pooled = BUFFERS.poll();
+        this.buf = pooled != null ? pooled : new byte[BUFFER_SIZE];
+        System.arraycopy(CONTENT, 0, buf, 0, CONTENT.length);
+        this.pos = CONTENT.length;
+    }
+
+    public void item(Long id, String sku, String name, BigDecimal price, int stock, Long categoryId,
+                     String description) {
+        if (items++ > 0) put((byte) ',');
+        raw(ID);
+        number(id);
+        raw(SKU);
+        string(sku);
+        raw(NAME);
+        string(name);
+        raw(PRICE);
+        if (price != null) ascii(price.toString());
+        else raw(NULL);
+        raw(STOCK);
+        number(stock);
+        raw(CATEGORY_ID);
+        number(categoryId);
+        raw(DESCRIPTION);
+        string(description);
+        put((byte) '}');
+    }
+
+    public void item(ItemDto d) {
+        item(d.getId(), d.getSku(), d.getName(), d.getPrice(), d.getStock(), d.getCategoryId(), d.getDescription());
+    }
+
+    public int items() {
+        return items;
+    }
+
+    /** Fin du tableau content et champs de PageResponse; nextCursor null: champ omis. */
+    public void end(int page, int size, long totalElements, int totalPages, boolean hasNext, String nextCursor) {
+        raw(PAGE);
+        number(page);
+        raw(SIZE);
+        number(size);
+        raw(TOTAL_ELEMENTS);
+        number(totalElements);
+        raw(TOTAL_PAGES);
+        number(totalPages);
+        raw(HAS_NEXT);
+        raw(hasNext ? TRUE : FALSE);
+        if (nextCursor != null) {
+            raw(NEXT_CURSOR);
+            string(nextCursor);
+        }
+        put((byte) '}');
+    }
+
+    /** Écrit la page rendue dans le flux (laissé ouvert). */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, pos);
+    }
+
+    /** Rend le tampon au pool; sans writeTo() préalable (exception), la page est abandonnée. */
+    @Override
+    public void close() {
+        if (buf == null) return;
+        if (buf.length <= MAX_POOLED_SIZE) BUFFERS.offer(buf);
+        buf = null;
+    }
+
+    private void number(Long value) {
+        if (value == null) raw(NULL);
+        else number(value.longValue());
+    }
+
+    private void number(long value) {
+        if (value == Long.MIN_VALUE) {
+            ascii(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int start = pos;
+        do {
+            buf[pos++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte b = buf[i];
+            buf[i] = buf[j];
+            buf[j] = b;
+        }
+    }
+
+    private void string(String s) {
+        if (s == null) {
+            raw(NULL);
+            return;
+        }
+        put((byte) '"');
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    put((byte) c);
+                } else {
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                unicodeEscape(c); // comme UTF8JsonGenerator: pas de séquence UTF-8 sur 4 octets
+            } else {
+                ensure(3);
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void escape(char c) {
+        char shortForm = switch (c) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '\b' -> 'b';
+            case '\t' -> 't';
+            case '\n' -> 'n';
+            case '\f' -> 'f';
+            case '\r' -> 'r';
+            default -> 0;
+        };
+        if (shortForm == 0) {
+            unicodeEscape(c);
+            return;
+        }
+        ensure(2);
+        buf[pos++] = '\\';
+        buf[pos++] = (byte) shortForm;
+    }
+
+    private void unicodeEscape(char c) {
+        ensure(6);
+        buf[pos++] = '\\';
+        buf[pos++] = 'u';
+        buf[pos++] = HEX[c >> 12];
+        buf[pos++] = HEX[(c >> 8) & 0xF];
+        buf[pos++] = HEX[(c >> 4) & 0xF];
+        buf[pos++] = HEX[c & 0xF];
+    }
+
+    private void ascii(String s) {
+        for (int i = 0, n = s.length(); i < n; i++) put((byte) s.charAt(i));
+    }
+
+    private void raw(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buf[pos++] = b;
+    }
+
+    private void ensure(int n) {
+        if (pos + n <= buf.length) return;
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
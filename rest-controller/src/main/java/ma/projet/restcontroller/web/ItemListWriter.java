@@ -0,0 +1,111 @@
+package ma.projet.restcontroller.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import ma.projet.restcontroller.config.RequestTiming;
+import ma.projet.restcontroller.repository.ItemCountCache;
+import ma.projet.restcontroller.repository.ItemRepository;
+import ma.projet.restcontroller.repository.ItemRows;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * app.items.fast-json.enabled: GET /items écrit du ResultSet vers la réponse par ItemJsonWriter, sans entités,
+ * DtoMappers, PageResponse ni Jackson. Mêmes modes et mêmes valeurs que la liste standard: page (totaux
+ * calculés comme PageableExecutionUtils / PageImpl, cache de COUNT compris), count=false (-1, hasNext par la
+ * ligne size+1) et keyset (after, nextCursor). La page est mise en tampon et n'est écrite qu'une fois lignes et
+ * totaux lus: une erreur SQL reste une réponse d'erreur (500), jamais un 200 tronqué.
+ */
+@Component
+class ItemListWriter {
+    private static final List<MediaType> BINARY = List.of(MediaType.parseMediaType("application/x-jackson-smile"),
+            MediaType.parseMediaType("application/cbor"), ProtobufItemsHttpMessageConverter.PROTOBUF);
+
+    private final ItemRows rows;
+    private final ItemRepository itemRepository;
+    private final ItemCountCache countCache;
+
+    ItemListWriter(ItemRows rows, ItemRepository itemRepository, ItemCountCache countCache) {
+        this.rows = rows;
+        this.itemRepository = itemRepository;
+        this.countCache = countCache;
+    }
+
+    /** Réponse JSON attendue: Accept absent, ou compatible avec application/json sans format binaire demandé. */
+    static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) return true;
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+            boolean json = false;
+            for (MediaType type : types) {
+                if (type.getQualityValue() == 0) continue;
+                if (BINARY.stream().anyMatch(type::equalsTypeAndSubtype)) return false;
+                json |= type.includes(MediaType.APPLICATION_JSON);
+            }
+            return json;
+        } catch (InvalidMediaTypeException e) {
+            return false; // réponse d'erreur laissée à la négociation standard
+        }
+    }
+
+    void write(Long categoryId, int page, int size, String after, boolean count, ServletWebRequest request) throws IOException {
+        // paramètres validés avant toute écriture (400 / 500 comme la liste standard)
+        Long afterId = after != null ? KeysetCursor.decode(after) : null;
+        PageRequest pageable = PageRequest.of(afterId != null ? 0 : page, size);
+        long offset = pageable.getOffset();
+        long[] lastId = new long[1];
+        boolean[] hasNext = new boolean[1];
+        HttpValidators.PageVersion version = new HttpValidators.PageVersion();
+        try (ItemJsonWriter json = new ItemJsonWriter()) {
+            rows.read(categoryId, afterId, offset, size + 1, rs -> {
+                if (json.items() == size) { // ligne size+1: seulement l'indicateur de suite
+                    hasNext[0] = true;
+                    return;
+                }
+                if (json.items() == 0) RequestTiming.serializationStarted();
+                lastId[0] = rs.getLong(1);
+                json.item(lastId[0], rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getInt(5),
+                        rs.getLong(6), rs.getString(7));
+                version.row(lastId[0], rs.getLong(8), rs.getTimestamp(9).toInstant());
+            });
+            int n = json.items();
+            int number = afterId != null ? 0 : page;
+            long total = -1;
+            int totalPages = -1;
+            boolean more = hasNext[0];
+            String nextCursor = null;
+            if (afterId != null) {
+                nextCursor = more && n > 0 ? KeysetCursor.encode(lastId[0]) : null;
+            } else if (count) {
+                total = total(categoryId, offset, size, n);
+                totalPages = (int) Math.ceil((double) total / size);
+                more = page + 1 < totalPages;
+            }
+            json.end(number, size, total, totalPages, more, nextCursor);
+            version.page(number, size, total, more, nextCursor);
+            // mêmes validateurs que PageResponse pour la même page (HttpValidators.notModified)
+            if (HttpValidators.notModified(request, version)) return;
+            HttpServletResponse response = request.getResponse();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            json.writeTo(response.getOutputStream());
+        }
+    }
+
+    // PageableExecutionUtils.getPage (pas de COUNT si la page est la dernière) puis ajustement de PageImpl
+    private long total(Long categoryId, long offset, int size, int n) {
+        long total;
+        if (countCache.isEnabled()) {
+            total = countCache.count(categoryId);
+        } else if (size > n && (offset == 0 || n > 0)) {
+            total = offset + n;
+        } else {
+            total = categoryId != null ? itemRepository.countByCategory_Id(categoryId) : itemRepository.count();
+        }
+        return n > 0 && offset + size > total ? offset + n : total;
+    }
+}
@@ -0,0 +1,30 @@
+package ma.projet.restcontroller.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseur opaque pour la pagination keyset (seek): encode le dernier id lu.
+ * Une valeur vide correspond à la première page.
+ */
+final class KeysetCursor {
+    private KeysetCursor() {}
+
+    static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decode(String cursor) {
+        if (cursor.isBlank()) return 0L;
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(cursor);
+            return Long.parseLong(new String(raw, StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ma.projet.restcontroller.web;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Écriture concurrente détectée par @Version au flush (PUT/DELETE sans If-Match, lots): 409 plutôt que 500.
+ */
+@RestControllerAdvice
+class OptimisticLockAdvice {
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ResponseEntity<Void> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
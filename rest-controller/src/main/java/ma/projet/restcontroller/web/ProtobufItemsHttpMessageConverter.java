@@ -0,0 +1,40 @@
+package ma.projet.restcontroller.web;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Accept: application/x-protobuf pour ItemDto, CategoryDto et PageResponse (écriture seule, voir ProtobufWriter).
+ */
+public class ProtobufItemsHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(ProtobufWriter.MEDIA_TYPE);
+
+    public ProtobufItemsHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProtobufWriter.supports(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf en écriture seule", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        ProtobufWriter.write(value, outputMessage.getBody());
+    }
+}
@@ -0,0 +1,158 @@
+package ma.projet.restcontroller.web;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import ma.projet.restcontroller.web.dto.CategoryDto;
+import ma.projet.restcontroller.web.dto.ItemHitDto;
+import ma.projet.restcontroller.web.dto.ItemDto;
+import ma.projet.restcontroller.web.dto.PageResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Encodage Protobuf de ItemDto, ItemHitDto, CategoryDto et PageResponse selon src/main/proto/items.proto, écrit directement
+ * avec CodedOutputStream (pas de classes générées ni de copie intermédiaire). Les lignes de ?fields= (Map)
+ * utilisent la même numérotation. Valeurs par défaut proto3 (0, chaîne vide, null) omises.
+ */
+final class ProtobufWriter {
+    static final String MEDIA_TYPE = "application/x-protobuf";
+
+    private ProtobufWriter() {}
+
+    static boolean supports(Class<?> type) {
+        return PageResponse.class.isAssignableFrom(type) || type == ItemDto.class || type == ItemHitDto.class
+                || type == CategoryDto.class;
+    }
+
+    static void write(Object value, OutputStream stream) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(stream, 8192);
+        Writer writer = new Writer(out);
+        if (value instanceof PageResponse<?> page) {
+            for (Object element : page.getContent()) {
+                Sizer sizer = new Sizer();
+                fields(element, sizer);
+                out.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(sizer.size);
+                fields(element, writer);
+            }
+            writer.int32(2, page.getPage());
+            writer.int32(3, page.getSize());
+            writer.int64(4, page.getTotalElements());
+            writer.int32(5, page.getTotalPages());
+            if (page.isHasNext()) out.writeBool(6, true);
+            writer.string(7, page.getNextCursor());
+            if (page.getMaxResults() != null) writer.int32(8, page.getMaxResults());
+        } else {
+            fields(value, writer);
+        }
+        out.flush();
+    }
+
+    // même parcours pour le calcul de taille (messages imbriqués préfixés par leur longueur) et pour l'écriture
+    private static void fields(Object value, Sink sink) throws IOException {
+        if (value instanceof ItemDto d) {
+            if (d.getId() != null) sink.int64(1, d.getId());
+            sink.string(2, d.getSku());
+            sink.string(3, d.getName());
+            price(d.getPrice(), sink);
+            sink.int32(5, d.getStock());
+            if (d.getCategoryId() != null) sink.int64(6, d.getCategoryId());
+            sink.string(7, d.getDescription());
+        } else if (value instanceof ItemHitDto h) {
+            if (h.getId() != null) sink.int64(1, h.getId());
+            sink.string(2, h.getSku());
+            sink.string(3, h.getName());
+            price(h.getPrice(), sink);
+            sink.int32(5, h.getStock());
+            if (h.getCategoryId() != null) sink.int64(6, h.getCategoryId());
+            sink.float32(10, h.getRank());
+        } else if (value instanceof CategoryDto c) {
+            if (c.getId() != null) sink.int64(1, c.getId());
+            sink.string(3, c.getName());
+            sink.string(9, c.getCode());
+        } else if (value instanceof Map<?, ?> row) {
+            for (Map.Entry<?, ?> e : row.entrySet()) {
+                Object v = e.getValue();
+                if (v == null) continue;
+                switch (String.valueOf(e.getKey())) {
+                    case "id" -> sink.int64(1, ((Number) v).longValue());
+                    case "sku" -> sink.string(2, v.toString());
+                    case "name" -> sink.string(3, v.toString());
+                    case "price" -> price((BigDecimal) v, sink);
+                    case "stock" -> sink.int32(5, ((Number) v).intValue());
+                    case "categoryId" -> sink.int64(6, ((Number) v).longValue());
+                    case "description" -> sink.string(7, v.toString());
+                    case "code" -> sink.string(9, v.toString());
+                    default -> { }
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Type non encodable en Protobuf: " + value.getClass().getName());
+        }
+    }
+
+    private static void price(BigDecimal price, Sink sink) throws IOException {
+        if (price == null) return;
+        sink.int64(4, price.unscaledValue().longValueExact());
+        sink.int32(8, price.scale());
+    }
+
+    private interface Sink {
+        void int64(int field, long value) throws IOException;
+
+        void int32(int field, int value) throws IOException;
+
+        void string(int field, String value) throws IOException;
+
+        void float32(int field, float value) throws IOException;
+    }
+
+    private static final class Sizer implements Sink {
+        int size;
+
+        @Override
+        public void int64(int field, long value) {
+            if (value != 0) size += CodedOutputStream.computeInt64Size(field, value);
+        }
+
+        @Override
+        public void int32(int field, int value) {
+            if (value != 0) size += CodedOutputStream.computeInt32Size(field, value);
+        }
+
+        @Override
+        public void string(int field, String value) {
+            if (value != null && !value.isEmpty()) size += CodedOutputStream.computeStringSize(field, value);
+        }
+
+        @Override
+        public void float32(int field, float value) {
+            if (value != 0) size += CodedOutputStream.computeFloatSize(field, value);
+        }
+    }
+
+    private record Writer(CodedOutputStream out) implements Sink {
+        @Override
+        public void int64(int field, long value) throws IOException {
+            if (value != 0) out.writeInt64(field, value);
+        }
+
+        @Override
+        public void int32(int field, int value) throws IOException {
+            if (value != 0) out.writeInt32(field, value);
+        }
+
+        @Override
+        public void string(int field, String value) throws IOException {
+            if (value != null && !value.isEmpty()) out.writeString(field, value);
+        }
+
+        @Override
+        public void float32(int field, float value) throws IOException {
+            if (value != 0) out.writeFloat(field, value);
+        }
+    }
+}
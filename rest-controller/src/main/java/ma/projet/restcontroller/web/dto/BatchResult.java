@@ -0,0 +1,36 @@
+package ma.projet.restcontroller.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Résultat d'un POST/PUT /items/batch: un statut HTTP par ligne, dans l'ordre de la requête.
+ */
+public class BatchResult {
+    private int succeeded;
+    private int failed;
+    private Row[] rows;
+
+    public BatchResult(int size) {
+        this.rows = new Row[size];
+    }
+
+    public void ok(int index, int status, Long id) {
+        rows[index] = new Row(index, status, id, null);
+        succeeded++;
+    }
+
+    public void fail(int index, int status, String error) {
+        rows[index] = new Row(index, status, null, error);
+        failed++;
+    }
+
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return failed; }
+    public List<Row> getResults() { return Arrays.asList(rows); }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Row(int index, int status, Long id, String error) {}
+}
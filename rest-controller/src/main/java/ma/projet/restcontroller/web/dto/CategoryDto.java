@@ -1,13 +1,36 @@
 package ma.projet.restcontroller.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 
-public class CategoryDto {
+import java.time.Instant;
+
+public class CategoryDto implements Versioned {
     private Long id; // lecture seule
     @NotBlank
     private String code;
     @NotBlank
     private String name;
+    // validateurs des listes (HttpValidators), ni lus ni écrits en JSON
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private Instant updatedAt;
+
+    public CategoryDto() {}
+
+    // utilisé par les requêtes "select new" (projection sans entité managée)
+    public CategoryDto(Long id, String code, String name) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+    }
+
+    public CategoryDto(Long id, String code, String name, long version, Instant updatedAt) {
+        this(id, code, name);
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -15,4 +38,8 @@ public class CategoryDto {
     public void setCode(String code) { this.code = code; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
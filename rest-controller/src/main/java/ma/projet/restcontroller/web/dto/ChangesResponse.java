@@ -0,0 +1,29 @@
+package ma.projet.restcontroller.web.dto;
+
+import java.util.List;
+
+/**
+ * Lot du flux de changements: entrées dans l'ordre (instant, id), hasNext si un lot suivant est déjà disponible.
+ * nextCursor toujours renseigné (position après la dernière entrée, ou position reçue si le lot est vide):
+ * à conserver et repasser en ?since= au cycle suivant.
+ */
+public class ChangesResponse<T> {
+    private List<ChangeDto<T>> content;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public ChangesResponse() {}
+
+    public ChangesResponse(List<ChangeDto<T>> content, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ChangeDto<T>> getContent() { return content; }
+    public void setContent(List<ChangeDto<T>> content) { this.content = content; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -1,6 +1,8 @@
 package ma.projet.restcontroller.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.function.Function;
@@ -14,6 +16,9 @@ public class PageResponse<T> {
     private int size;
     private long totalElements;
     private int totalPages;
+    private boolean hasNext;
+    private String nextCursor;
+    private Integer maxResults;
 
     public static <E, D> PageResponse<D> from(Page<E> page, Function<E, D> mapper) {
         PageResponse<D> pr = new PageResponse<>();
@@ -22,6 +27,33 @@ public class PageResponse<T> {
         pr.size = page.getSize();
         pr.totalElements = page.getTotalElements();
         pr.totalPages = page.getTotalPages();
+        pr.hasNext = page.hasNext();
+        return pr;
+    }
+
+    /**
+     * Page sans COUNT (size+1 lignes lues): totalElements/totalPages valent -1, hasNext indique la suite.
+     */
+    public static <E, D> PageResponse<D> from(Slice<E> slice, Function<E, D> mapper) {
+        PageResponse<D> pr = new PageResponse<>();
+        pr.content = slice.getContent().stream().map(mapper).toList();
+        pr.page = slice.getNumber();
+        pr.size = slice.getSize();
+        pr.totalElements = -1;
+        pr.totalPages = -1;
+        pr.hasNext = slice.hasNext();
+        return pr;
+    }
+
+    /**
+     * Page keyset: comme une Slice, avec nextCursor pointant après le dernier élément (null en fin de parcours).
+     */
+    public static <E, D> PageResponse<D> from(Slice<E> slice, Function<E, D> mapper, Function<E, String> cursor) {
+        PageResponse<D> pr = from(slice, mapper);
+        List<E> rows = slice.getContent();
+        if (slice.hasNext() && !rows.isEmpty()) {
+            pr.nextCursor = cursor.apply(rows.get(rows.size() - 1));
+        }
         return pr;
     }
 
@@ -35,4 +67,13 @@ public class PageResponse<T> {
     public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
     public int getTotalPages() { return totalPages; }
     public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    // recherche texte: nombre de résultats accessibles par pagination (au-delà, page vide et hasNext false)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getMaxResults() { return maxResults; }
+    public void setMaxResults(Integer maxResults) { this.maxResults = maxResults; }
 }
@@ -14,6 +14,8 @@ public final class DtoMappers {
         dto.setId(c.getId());
         dto.setCode(c.getCode());
         dto.setName(c.getName());
+        dto.setVersion(c.getVersion());
+        dto.setUpdatedAt(c.getUpdatedAt());
         return dto;
     }
 
@@ -29,6 +31,8 @@ public final class DtoMappers {
             dto.setCategoryId(i.getCategory().getId());
         }
         dto.setDescription(i.getDescription());
+        dto.setVersion(i.getVersion());
+        dto.setUpdatedAt(i.getUpdatedAt());
         return dto;
     }
 }
@@ -0,0 +1,24 @@
+-- Schéma de base (identique à init.sql). Idempotent: rejoué sans effet sur une base créée par init.sql.
+CREATE TABLE IF NOT EXISTS category (
+    id BIGSERIAL PRIMARY KEY,
+    code VARCHAR(32) UNIQUE NOT NULL,
+    name VARCHAR(128) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+    );
+
+CREATE TABLE IF NOT EXISTS item (
+    id BIGSERIAL PRIMARY KEY,
+    sku VARCHAR(64) UNIQUE NOT NULL,
+    name VARCHAR(128) NOT NULL,
+    price NUMERIC(10,2) NOT NULL,
+    stock INT NOT NULL,
+    category_id BIGINT NOT NULL REFERENCES category(id),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+    );
+
+-- payloads 5 KB
+ALTER TABLE item ADD COLUMN IF NOT EXISTS description VARCHAR(5000);
+
+CREATE INDEX IF NOT EXISTS idx_item_category ON item(category_id);
+CREATE INDEX IF NOT EXISTS idx_item_category_id ON item(category_id, id);
+CREATE INDEX IF NOT EXISTS idx_item_updated_at ON item(updated_at);
@@ -0,0 +1,11 @@
+-- Ids générés par séquence "pooled" (allocationSize = 50): Hibernate réserve un bloc de 50 ids
+-- par nextval, ce qui réactive le batching JDBC des INSERT (impossible avec IDENTITY).
+-- Les séquences BIGSERIAL existantes sont conservées (DEFAULT nextval inchangé, ids existants intacts).
+-- Avec l'optimiseur pooled, la valeur renvoyée par nextval est la borne haute du bloc:
+-- on repart donc à max(id) + 50 pour que le premier bloc commence juste après les ids existants
+-- (y compris ceux insérés avec un id explicite, ex. seed.sql).
+SELECT setval('category_id_seq', COALESCE((SELECT MAX(id) FROM category), 0) + 50, false);
+ALTER SEQUENCE category_id_seq INCREMENT BY 50;
+
+SELECT setval('item_id_seq', COALESCE((SELECT MAX(id) FROM item), 0) + 50, false);
+ALTER SEQUENCE item_id_seq INCREMENT BY 50;
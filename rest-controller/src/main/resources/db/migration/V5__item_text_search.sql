@@ -0,0 +1,9 @@
+-- Recherche texte GET /items/search?q= (variante D: /items/search/text): nom (poids A) et description (poids B)
+-- dans une colonne tsvector générée, index GIN; configuration 'simple' (pas de racinisation: noms et SKU générés,
+-- pas de langue naturelle). SKU par sous-chaîne insensible à la casse (ILIKE '%q%') via un index trigramme.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+ALTER TABLE item ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple'::regconfig, coalesce(name, '')), 'A')
+    || setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS idx_item_search_vector ON item USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_item_sku_trgm ON item USING GIN (sku gin_trgm_ops);
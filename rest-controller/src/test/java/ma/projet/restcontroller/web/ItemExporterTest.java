@@ -0,0 +1,92 @@
+package ma.projet.restcontroller.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.projet.restcontroller.repository.ItemRepository;
+import ma.projet.restcontroller.web.dto.ItemDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mémoire bornée de l'export NDJSON: chaque ligne lue doit être écrite dans le flux avant que l'exporteur
+ * n'en lise beaucoup d'autres (tampon du JsonGenerator seulement), quelle que soit la taille du catalogue.
+ * Repository et transactions simulés: pas de contexte Spring ni de base.
+ */
+class ItemExporterTest {
+    private static final int ROWS = 200_000;
+    private static final String DESCRIPTION = "d".repeat(1024);
+    // 8 Ko de tampon JsonGenerator, lignes d'environ 1,1 Ko: quelques lignes en attente au plus
+    private static final long MAX_PENDING_ROWS = 16;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void rowsAreWrittenAsTheyAreRead() throws IOException {
+        AtomicLong read = new AtomicLong();
+        AtomicLong maxPending = new AtomicLong();
+        LineCountingStream out = new LineCountingStream();
+
+        ItemRepository repository = mock(ItemRepository.class);
+        when(repository.streamAllDto()).thenReturn(LongStream.rangeClosed(1, ROWS).mapToObj(id -> {
+            maxPending.accumulateAndGet(read.incrementAndGet() - out.lines, Math::max);
+            return new ItemDto(id, "SKU" + id, "Item " + id, new BigDecimal("9.99"), 5, 1L, DESCRIPTION);
+        }));
+        ItemExporter exporter = new ItemExporter(repository, objectMapper, mock(PlatformTransactionManager.class));
+
+        exporter.writeNdjson(out);
+
+        assertThat(read.get()).isEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(ROWS);
+        assertThat(maxPending.get()).isLessThanOrEqualTo(MAX_PENDING_ROWS);
+    }
+
+    @Test
+    void eachLineIsAnItemDto() throws IOException {
+        ItemRepository repository = mock(ItemRepository.class);
+        when(repository.streamAllDto()).thenReturn(LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> new ItemDto(id, "SKU" + id, "Item\n" + id, new BigDecimal("1.50"), 1, 2L, null)));
+        ItemExporter exporter = new ItemExporter(repository, objectMapper, mock(PlatformTransactionManager.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.writeNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < lines.length; i++) {
+            ItemDto dto = objectMapper.readValue(lines[i], ItemDto.class);
+            assertThat(dto.getId()).isEqualTo(i + 1L);
+            assertThat(dto.getName()).isEqualTo("Item\n" + (i + 1));
+        }
+    }
+
+    /** Compte les lignes reçues sans les garder. */
+    private static final class LineCountingStream extends OutputStream {
+        volatile long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            long n = lines;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') n++;
+            }
+            lines = n;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ma.projet.restcontroller.web;
+
+import ma.projet.restcontroller.repository.ItemCountCache;
+import ma.projet.restcontroller.repository.ItemRepository;
+import ma.projet.restcontroller.repository.ItemRows;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Erreur SQL au milieu du ResultSet: rien ne doit partir dans la réponse (500 encore possible, pas de 200 tronqué).
+ */
+class ItemListWriterTest {
+
+    @Test
+    void failureWhileReadingRowsWritesNothing() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(7)).thenReturn("d".repeat(20000)); // plus d'un tampon de 16 Ko par ligne
+        when(rs.getTimestamp(9)).thenReturn(new Timestamp(0));
+        ItemRows rows = mock(ItemRows.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(4);
+            for (int i = 0; i < 5; i++) handler.processRow(rs);
+            throw new DataAccessResourceFailureException("connexion perdue");
+        }).when(rows).read(isNull(), isNull(), anyLong(), anyInt(), any());
+        ItemListWriter writer = new ItemListWriter(rows, mock(ItemRepository.class), mock(ItemCountCache.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> writer.write(null, 0, 20, null, true, request(response)))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void pageIsWrittenOnceComplete() throws IOException {
+        ItemRows rows = mock(ItemRows.class);
+        ItemListWriter writer = new ItemListWriter(rows, mock(ItemRepository.class), mock(ItemCountCache.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(null, 0, 20, null, false, request(response));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull();
+        assertThat(response.getContentAsString()).isEqualTo("{\"content\":[],\"page\":0,\"size\":20,\"totalElements\":-1,\"totalPages\":-1,\"hasNext\":false}");
+    }
+
+    private static ServletWebRequest request(MockHttpServletResponse response) {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/items"), response);
+    }
+}
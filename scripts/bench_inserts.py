@@ -0,0 +1,99 @@
+#!/usr/bin/env python3
+"""
+Measure item insert throughput (inserts/s) against one variant:
+- single: one POST /items per row (one transaction per row)
+- batch:  POST /items/batch with N rows per request (one transaction per request,
+          JDBC batching possible only with sequence-generated ids)
+
+Run once before and once after a change touching id generation / batching and
+compare the "inserts/s" lines. Each run uses a fresh SKU prefix, so runs can be
+repeated on the same database.
+
+Usage examples:
+  python bench_inserts.py --base-url http://localhost:8082 --mode batch -n 20000 --batch-size 500
+  python bench_inserts.py --base-url http://localhost:8081 --mode single -n 5000 --threads 8
+"""
+
+from __future__ import annotations
+import argparse
+import json
+import time
+import urllib.request
+import uuid
+from concurrent.futures import ThreadPoolExecutor
+from typing import List
+
+
+def parse_args() -> argparse.Namespace:
+    p = argparse.ArgumentParser(description="Insert throughput benchmark (inserts/s)")
+    p.add_argument("--base-url", default="http://localhost:8082", help="Variant base URL (A: 8081, C: 8082)")
+    p.add_argument("--mode", choices=["single", "batch"], default="batch", help="POST /items or POST /items/batch")
+    p.add_argument("-n", "--items", type=int, default=10_000, help="Number of items to insert")
+    p.add_argument("--batch-size", type=int, default=500, help="Rows per /items/batch request")
+    p.add_argument("--threads", type=int, default=4, help="Concurrent HTTP clients")
+    p.add_argument("--categories", type=int, default=20, help="Category ids used: 1..N (must exist)")
+    p.add_argument("--description-bytes", type=int, default=0, help="Description size (0 for ~1 KB style rows)")
+    return p.parse_args()
+
+
+def make_rows(prefix: str, start: int, count: int, categories: int, description: str) -> List[dict]:
+    rows = []
+    for i in range(start, start + count):
+        row = {
+            "sku": f"{prefix}-{i:07d}",
+            "name": f"Bench item {i:07d}",
+            "price": round(1 + (i % 9999) / 100.0, 2),
+            "stock": i % 500,
+            "categoryId": (i % categories) + 1,
+        }
+        if description:
+            row["description"] = description
+        rows.append(row)
+    return rows
+
+
+def post(url: str, body: object) -> int:
+    data = json.dumps(body).encode("utf-8")
+    req = urllib.request.Request(url, data=data, method="POST", headers={"Content-Type": "application/json"})
+    with urllib.request.urlopen(req) as resp:
+        resp.read()
+        return resp.status
+
+
+def main() -> None:
+    args = parse_args()
+    prefix = "BENCH-" + uuid.uuid4().hex[:8]
+    description = "x" * args.description_bytes
+    base = args.base_url.rstrip("/")
+
+    if args.mode == "single":
+        chunks = [(i, 1) for i in range(args.items)]
+    else:
+        chunks = [(i, min(args.batch_size, args.items - i)) for i in range(0, args.items, args.batch_size)]
+
+    def run(chunk):
+        start, count = chunk
+        rows = make_rows(prefix, start, count, args.categories, description)
+        if args.mode == "single":
+            return post(base + "/items", rows[0])
+        return post(base + "/items/batch", rows)
+
+    # Warm-up (JIT, connection pool, first id block), not measured
+    post(base + "/items/batch" if args.mode == "batch" else base + "/items",
+         make_rows(prefix + "-w", 0, 50, args.categories, description) if args.mode == "batch"
+         else make_rows(prefix + "-w", 0, 1, args.categories, description)[0])
+
+    t0 = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=args.threads) as pool:
+        statuses = list(pool.map(run, chunks))
+    elapsed = time.perf_counter() - t0
+
+    errors = sum(1 for s in statuses if s >= 300)
+    print(f"mode={args.mode} items={args.items} batch-size={args.batch_size if args.mode == 'batch' else 1} "
+          f"threads={args.threads} prefix={prefix}")
+    print(f"elapsed: {elapsed:.2f}s  requests: {len(chunks)}  http errors: {errors}")
+    print(f"inserts/s: {args.items / elapsed:.0f}")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,106 @@
+package ma.projet.springdatarest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limiteur d'admission calé sur le pool Hikari: au plus maximum-pool-size x permits-per-connection requêtes
+ * en cours, les suivantes attendent au plus queue-timeout-ms puis reçoivent 503 (Retry-After).
+ * Avec les threads virtuels, Tomcat n'a plus de plafond de threads: sans ce filtre, des milliers de requêtes
+ * attendraient une connexion jusqu'au connection-timeout Hikari (30 s).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final long queueTimeoutMs;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public AdmissionControlFilter(DataSource dataSource, MeterRegistry registry,
+                                  @Value("${app.admission.permits-per-connection:2}") int permitsPerConnection,
+                                  @Value("${app.admission.queue-timeout-ms:5000}") long queueTimeoutMs) {
+        // DataSource éventuellement enveloppée (TimedDataSource): pool Hikari retrouvé par unwrap
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        int poolSize = hikari != null ? hikari.getMaximumPoolSize() : 10;
+        int max = Math.max(1, poolSize * permitsPerConnection);
+        this.permits = new Semaphore(max, true);
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.waitTimer = Timer.builder("http.admission.wait").publishPercentileHistogram().register(registry);
+        this.rejected = Counter.builder("http.admission.rejected").register(registry);
+        Gauge.builder("http.admission.limit", () -> max).register(registry);
+        Gauge.builder("http.admission.in_flight", permits, p -> max - p.availablePermits()).register(registry);
+        Gauge.builder("http.admission.waiting", permits, Semaphore::getQueueLength).register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        long waited = System.nanoTime() - start;
+        waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        RequestTiming.addQueue(waited);
+        if (!admitted) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // réponses asynchrones (StreamingResponseBody): permis rendu à la fin de l'écriture
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override public void onComplete(AsyncEvent event) { release(released); }
+                    @Override public void onTimeout(AsyncEvent event) { release(released); }
+                    @Override public void onError(AsyncEvent event) { release(released); }
+                    @Override public void onStartAsync(AsyncEvent event) { }
+                });
+            } else {
+                release(released);
+            }
+        }
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) permits.release();
+    }
+}
@@ -0,0 +1,51 @@
+package ma.projet.springdatarest.config;
+
+import ma.projet.springdatarest.domain.Category;
+import ma.projet.springdatarest.domain.Item;
+import ma.projet.springdatarest.repository.ChangeRows;
+import ma.projet.springdatarest.repository.EntityVersion;
+import ma.projet.springdatarest.web.ChangeFeedController;
+import ma.projet.springdatarest.web.projection.CategoryView;
+import ma.projet.springdatarest.web.projection.ItemHit;
+import ma.projet.springdatarest.web.projection.ItemSummary;
+import ma.projet.springdatarest.web.projection.ItemSummaryView;
+import ma.projet.springdatarest.web.projection.ItemView;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+/**
+ * Image native (profil Maven native): ce que l'AOT de Spring Data ne déduit pas des repositories. Les projections
+ * REST (@Projection, extraits) sont des proxies JDK créés à la demande: interfaces du proxy de
+ * ProxyProjectionFactory déclarées, getters ouverts au rendu HAL; les @Value("#{target.category.id}") lisent les
+ * entités par réflexion (SpEL). Classes des "select new" JPQL instanciées par Hibernate, records du flux de
+ * changements sérialisés par Jackson; application.conf est lu par Caffeine JCache. Sans effet sur la JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeConfig.Hints.class)
+public class NativeConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> projection : RestRepositoryConfig.PROJECTIONS) {
+                hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+                hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            for (Class<?> projection : new Class<?>[]{ItemSummary.class, ItemHit.class}) {
+                hints.proxies().registerJdkProxy(projection, TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+                hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            for (Class<?> type : new Class<?>[]{Item.class, Category.class, EntityVersion.class,
+                    ChangeRows.Change.class, ChangeFeedController.Changes.class}) {
+                hints.reflection().registerType(type, MemberCategory.values());
+            }
+            hints.resources().registerPattern("application.conf");
+        }
+    }
+}
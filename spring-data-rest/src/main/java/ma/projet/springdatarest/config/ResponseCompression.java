@@ -0,0 +1,197 @@
+package ma.projet.springdatarest.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression des réponses: négociation Accept-Encoding (gzip, deflate), seuil de taille et liste de types MIME
+ * (app.compression.*), codecs JDK. Utilisée par CompressionFilter et par ResponseCacheFilter (variantes
+ * compressées gardées avec l'entrée de cache). Brotli n'a pas d'encodeur pur Java: non proposé.
+ * La compression tourne sur un pool dédié (app.compression.threads) pour ne pas occuper les threads de requête.
+ * Métriques: octets avant/après par encodage, temps CPU de compression, tailles des réponses éligibles par type
+ * (compressées ou non) pour caler le seuil.
+ */
+@Component
+public class ResponseCompression {
+    private static final Logger log = LoggerFactory.getLogger(ResponseCompression.class);
+    private static final List<String> SUPPORTED = List.of("gzip", "deflate");
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final boolean enabled;
+    private final List<String> encodings;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final int level;
+    private final ExecutorService executor;
+    private final Meter.MeterProvider<Counter> bytesIn;
+    private final Meter.MeterProvider<Counter> bytesOut;
+    private final Meter.MeterProvider<Timer> cpu;
+    private final Meter.MeterProvider<DistributionSummary> sizes;
+
+    public ResponseCompression(MeterRegistry registry,
+                               @Value("${app.compression.enabled:false}") boolean enabled,
+                               @Value("${app.compression.encodings:gzip,deflate}") List<String> encodings,
+                               @Value("${app.compression.min-response-size:2048}") int minResponseSize,
+                               @Value("${app.compression.mime-types:application/json,application/hal+json}") List<MediaType> mimeTypes,
+                               @Value("${app.compression.level:6}") int level,
+                               @Value("${app.compression.threads:0}") int threads) {
+        this.enabled = enabled;
+        this.encodings = encodings.stream().map(e -> e.trim().toLowerCase(Locale.ROOT)).filter(SUPPORTED::contains).toList();
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+        this.level = level;
+        AtomicInteger n = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "compression-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.bytesIn = Counter.builder("http.server.compression.bytes.in")
+                .description("Octets avant compression").baseUnit("bytes").withRegistry(registry);
+        this.bytesOut = Counter.builder("http.server.compression.bytes.out")
+                .description("Octets après compression").baseUnit("bytes").withRegistry(registry);
+        this.cpu = Timer.builder("http.server.compression.cpu")
+                .description("Temps CPU de compression par réponse")
+                .publishPercentileHistogram()
+                .withRegistry(registry);
+        this.sizes = DistributionSummary.builder("http.server.compression.response.size")
+                .description("Taille non compressée des réponses de type compressible")
+                .baseUnit("bytes")
+                .serviceLevelObjectives(512, 1024, 2048, 4096, 8192, 16384, 65536, 262144, 1048576)
+                .withRegistry(registry);
+        if (isEnabled()) log.info("Compression des réponses: {} à partir de {} octets ({})", this.encodings, minResponseSize, mimeTypes);
+    }
+
+    public boolean isEnabled() {
+        return enabled && !encodings.isEmpty();
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    public boolean compressible(String contentType) {
+        if (contentType == null) return false;
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return mimeTypes.stream().anyMatch(m -> m.includes(type));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Encodage à appliquer à un corps de length octets, null si la réponse part telle quelle
+     * (trop petite, ou aucun encodage acceptable). La taille est relevée dans tous les cas.
+     */
+    public String negotiate(String acceptEncoding, String contentType, int length) {
+        if (!isEnabled()) return null;
+        String encoding = length >= minResponseSize ? select(acceptEncoding) : null;
+        sizes.withTags("content_type", MediaType.parseMediaType(contentType).getSubtype(), "compressed", Boolean.toString(encoding != null))
+                .record(length);
+        return encoding;
+    }
+
+    // encodage préféré (ordre de app.compression.encodings) parmi ceux de q > 0; "*" accepte tout
+    private String select(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) return null;
+        String best = null;
+        double bestQ = 0;
+        for (String encoding : encodings) {
+            double q = quality(acceptEncoding, encoding);
+            if (q > bestQ) {
+                best = encoding;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String acceptEncoding, String encoding) {
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String p = tokens[i].trim();
+                if (p.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(p.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals(encoding)) return q;
+            if (coding.equals("*")) wildcard = q;
+        }
+        return wildcard;
+    }
+
+    /** Compresse body (temps CPU du thread courant mesuré). */
+    public byte[] compress(String encoding, byte[] body) {
+        long start = cpuTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (OutputStream z = encoder(encoding, out)) {
+            z.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        cpu.withTags("encoding", encoding).record(cpuTime() - start, TimeUnit.NANOSECONDS);
+        bytesIn.withTags("encoding", encoding).increment(body.length);
+        bytesOut.withTags("encoding", encoding).increment(compressed.length);
+        return compressed;
+    }
+
+    private OutputStream encoder(String encoding, OutputStream out) throws IOException {
+        if (encoding.equals("gzip")) {
+            return new GZIPOutputStream(out, 8192) {
+                { def.setLevel(level); }
+            };
+        }
+        // "deflate" au sens HTTP: flux zlib (RFC 1950), pas de deflate brut
+        return new DeflaterOutputStream(out, new Deflater(level), 8192) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                def.end();
+            }
+        };
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
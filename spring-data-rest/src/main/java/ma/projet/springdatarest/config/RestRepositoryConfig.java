@@ -1,18 +1,28 @@
 package ma.projet.springdatarest.config;
 
+import ma.projet.springdatarest.web.projection.CategoryView;
+import ma.projet.springdatarest.web.projection.ItemSummaryView;
+import ma.projet.springdatarest.web.projection.ItemView;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
 import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+
+import java.util.List;
 
 @Configuration
 public class RestRepositoryConfig implements RepositoryRestConfigurer {
+    // @Projection déclarées explicitement: le scan du classpath ne les trouve pas en image native
+    static final List<Class<?>> PROJECTIONS = List.of(ItemView.class, ItemSummaryView.class, CategoryView.class);
+
     @Override
-    public void configureRepositoryRestConfiguration(RepositoryRestConfiguration config) {
+    public void configureRepositoryRestConfiguration(RepositoryRestConfiguration config, CorsRegistry cors) {
         // Expose IDs for entities to make HAL responses include ids
         config.exposeIdsFor(ma.projet.springdatarest.domain.Category.class,
                 ma.projet.springdatarest.domain.Item.class);
         // Keep default base path '/'
         config.setDefaultPageSize(20);
         config.setMaxPageSize(200);
+        PROJECTIONS.forEach(config.getProjectionConfiguration()::addProjection);
     }
 }
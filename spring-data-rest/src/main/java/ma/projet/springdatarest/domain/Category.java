@@ -2,17 +2,24 @@ package ma.projet.springdatarest.domain;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.annotation.LastModifiedDate;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Table(name = "category", indexes = {
-        @Index(name = "idx_category_code", columnList = "code", unique = true)
+        @Index(name = "idx_category_code", columnList = "code", unique = true),
+        @Index(name = "idx_category_updated_id", columnList = "updated_at, id")
 })
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 32, unique = true)
@@ -24,8 +31,14 @@ public class Category {
     private String name;
 
     @Column(name = "updated_at", nullable = false)
+    @LastModifiedDate // en-tête Last-Modified des ressources Spring Data REST
     private Instant updatedAt = Instant.now();
 
+    // verrouillage optimiste: UPDATE/DELETE ... WHERE id = ? AND version = ?, ETag des ressources
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "category", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = false)
     private List<Item> items = new ArrayList<>();
 
@@ -43,6 +56,8 @@ public class Category {
     public void setName(String name) { this.name = name; }
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
     public List<Item> getItems() { return items; }
     public void setItems(List<Item> items) { this.items = items; }
 }
@@ -4,7 +4,17 @@ import ma.projet.springdatarest.domain.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import ma.projet.springdatarest.web.projection.CategoryView;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.Optional;
 
 @RepositoryRestResource(collectionResourceRel = "categories", path = "categories", excerptProjection = CategoryView.class)
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // Validateurs HTTP (ETag / Last-Modified): version lue sans charger l'entité
+    @RestResource(exported = false)
+    @Query("select new ma.projet.springdatarest.repository.EntityVersion(c.version, c.updatedAt) from Category c where c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,90 @@
+package ma.projet.springdatarest.repository;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lignes du flux de changements (GET /items/changes, GET /categories/changes): lignes modifiées après la position
+ * (updated_at, id) et tombstones (item_tombstone / category_tombstone, écrites par trigger à chaque DELETE) après
+ * (deleted_at, id), fusionnées dans l'ordre (instant, id). Chaque branche lit au plus limit lignes par son index
+ * (colonne d'instant, id) avant l'union, sans OFFSET. before: borne haute exclue de l'instant.
+ * Champs de data nommés comme les DTO des autres variantes (categoryId), JSON identique.
+ */
+@Repository
+public class ChangeRows {
+    private static final String ITEMS = """
+            (select id, updated_at, false, sku, name, price, stock, category_id, description
+             from item where (updated_at, id) > (?, ?) and updated_at < ? order by updated_at, id limit ?)
+            union all
+            (select id, deleted_at, true, null, null, null, null, null, null
+             from item_tombstone where (deleted_at, id) > (?, ?) and deleted_at < ? order by deleted_at, id limit ?)
+            order by 2, 1
+            limit ?""";
+
+    private static final String CATEGORIES = """
+            (select id, updated_at, false, code, name
+             from category where (updated_at, id) > (?, ?) and updated_at < ? order by updated_at, id limit ?)
+            union all
+            (select id, deleted_at, true, null, null
+             from category_tombstone where (deleted_at, id) > (?, ?) and deleted_at < ? order by deleted_at, id limit ?)
+            order by 2, 1
+            limit ?""";
+
+    /** Entrée du flux: état courant (data) ou suppression (deleted, data absent); changedAt sert au curseur. */
+    public record Change(Long id, boolean deleted,
+                         @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, Object> data,
+                         @JsonIgnore LocalDateTime changedAt) {
+    }
+
+    private static final RowMapper<Change> ITEM = (rs, rowNum) -> {
+        long id = rs.getLong(1);
+        LocalDateTime at = rs.getObject(2, LocalDateTime.class);
+        if (rs.getBoolean(3)) return new Change(id, true, null, at);
+        Map<String, Object> data = new LinkedHashMap<>(16);
+        data.put("id", id);
+        data.put("sku", rs.getString(4));
+        data.put("name", rs.getString(5));
+        data.put("price", rs.getBigDecimal(6));
+        data.put("stock", rs.getInt(7));
+        data.put("categoryId", rs.getObject(8, Long.class));
+        data.put("description", rs.getString(9));
+        return new Change(id, false, data, at);
+    };
+
+    private static final RowMapper<Change> CATEGORY = (rs, rowNum) -> {
+        long id = rs.getLong(1);
+        LocalDateTime at = rs.getObject(2, LocalDateTime.class);
+        if (rs.getBoolean(3)) return new Change(id, true, null, at);
+        Map<String, Object> data = new LinkedHashMap<>(4);
+        data.put("id", id);
+        data.put("code", rs.getString(4));
+        data.put("name", rs.getString(5));
+        return new Change(id, false, data, at);
+    };
+
+    private final JdbcTemplate jdbc;
+
+    ChangeRows(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<Change> items(LocalDateTime afterAt, long afterId, LocalDateTime before, int limit) {
+        return jdbc.query(ITEMS, ITEM, args(afterAt, afterId, before, limit));
+    }
+
+    public List<Change> categories(LocalDateTime afterAt, long afterId, LocalDateTime before, int limit) {
+        return jdbc.query(CATEGORIES, CATEGORY, args(afterAt, afterId, before, limit));
+    }
+
+    private static Object[] args(LocalDateTime afterAt, long afterId, LocalDateTime before, int limit) {
+        return new Object[]{afterAt, afterId, before, limit, afterAt, afterId, before, limit, limit};
+    }
+}
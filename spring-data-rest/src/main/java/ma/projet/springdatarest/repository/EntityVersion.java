@@ -0,0 +1,9 @@
+package ma.projet.springdatarest.repository;
+
+import java.time.Instant;
+
+/**
+ * Version d'une ligne pour les validateurs HTTP: @Version pour l'ETag (et If-Match), updated_at pour Last-Modified.
+ */
+public record EntityVersion(long version, Instant lastModified) {
+}
@@ -3,16 +3,22 @@ package ma.projet.springdatarest.repository;
 import ma.projet.springdatarest.domain.Item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import ma.projet.springdatarest.web.projection.ItemHit;
+import ma.projet.springdatarest.web.projection.ItemSummary;
 import ma.projet.springdatarest.web.projection.ItemView;
 import org.springframework.data.rest.core.annotation.RestResource;
 
+import java.util.Optional;
+
 @RepositoryRestResource(collectionResourceRel = "items", path = "items", excerptProjection = ItemView.class)
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item> {
 
     @RestResource(path = "byCategoryId", rel = "byCategoryId")
     Page<Item> findByCategory_Id(@Param("categoryId") Long categoryId, Pageable pageable);
@@ -22,7 +28,67 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
            countQuery = "select count(i) from Item i where i.category.id = :cid")
     Page<Item> findByCategoryIdJoinFetch(@Param("cid") Long categoryId, Pageable pageable);
 
+    // Variantes sans COUNT: Slice lit size+1 lignes, la réponse HAL n'a pas de bloc "page" avec totaux
+    @RestResource(path = "slice", rel = "slice")
+    Slice<Item> findSliceBy(Pageable pageable);
+
+    @RestResource(path = "byCategoryIdSlice", rel = "byCategoryIdSlice")
+    Slice<Item> findSliceByCategory_Id(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    // Pagination keyset: passer l'id du dernier élément reçu dans "after" (0 pour la première page), page=0
+    @RestResource(path = "byIdAfter", rel = "byIdAfter")
+    Slice<Item> findByIdGreaterThanOrderByIdAsc(@Param("after") Long after, Pageable pageable);
+
+    @RestResource(path = "byCategoryIdAfter", rel = "byCategoryIdAfter")
+    Slice<Item> findByCategory_IdAndIdGreaterThanOrderByIdAsc(@Param("categoryId") Long categoryId,
+                                                              @Param("after") Long after, Pageable pageable);
+
+    // Lecture partielle sans description: projection fermée sur alias, seules ces colonnes sont dans le SELECT
+    // (categoryId n'étant pas un attribut de Item, ItemSummary n'est pas dérivable d'un nom de méthode).
+    // Servies par ItemSearchController: Spring Data REST ne sait pas rendre une projection qui n'est pas une entité
+    @RestResource(exported = false)
+    @Query(value = "select i.id as id, i.sku as sku, i.name as name, i.price as price, i.stock as stock, "
+            + "i.category.id as categoryId, i.version as version, i.updatedAt as updatedAt from Item i",
+           countQuery = "select count(i) from Item i")
+    Page<ItemSummary> findSummaryBy(Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(value = "select i.id as id, i.sku as sku, i.name as name, i.price as price, i.stock as stock, "
+            + "i.category.id as categoryId, i.version as version, i.updatedAt as updatedAt from Item i where i.category.id = :categoryId",
+           countQuery = "select count(i) from Item i where i.category.id = :categoryId")
+    Page<ItemSummary> findSummaryByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    // Recherche texte classée (même requête que GET /items/search des autres variantes): mots de q en préfixe
+    // dans search_vector (GIN), q en sous-chaîne du sku (trigrammes), toutes les correspondances classées dans la
+    // CTE hits qui garde les max meilleures (classement exact, pagination bornée), sans COUNT. q absent ou blanc: page vide
+    // (pas de motif sku). Servie par ItemSearchController (/items/search/text): tri imposé par la requête
+    @RestResource(exported = false)
+    @Query(nativeQuery = true, value = """
+            with s as (
+                select to_tsquery('simple', coalesce((select string_agg(quote_literal(lexeme) || ':*', ' & ')
+                                                      from unnest(to_tsvector('simple', :q))), '')) as query,
+                       case when btrim(:q) <> ''
+                            then '%' || replace(replace(replace(btrim(:q), '!', '!!'), '%', '!%'), '_', '!_') || '%'
+                       end as sku
+            ), hits as (
+                select i.id, i.sku, i.name, i.price, i.stock, i.category_id, i.version, i.updated_at,
+                       ts_rank(i.search_vector, s.query) + case when i.sku ilike s.sku escape '!' then 1 else 0 end as rank
+                from s join item i on i.search_vector @@ s.query or i.sku ilike s.sku escape '!'
+                order by rank desc, i.id
+                limit :max
+            )
+            select id as "id", sku as "sku", name as "name", price as "price", stock as "stock",
+                   category_id as "categoryId", version as "version", updated_at as "updatedAt", rank as "rank"
+            from hits
+            order by 9 desc, 1""")
+    Slice<ItemHit> findByText(@Param("q") String q, @Param("max") int max, Pageable pageable);
+
     @Override
     @EntityGraph(attributePaths = {})
     Page<Item> findAll(Pageable pageable);
+
+    // Validateurs HTTP (ETag / Last-Modified): version lue sans charger l'entité
+    @RestResource(exported = false)
+    @Query("select new ma.projet.springdatarest.repository.EntityVersion(i.version, i.updatedAt) from Item i where i.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 }
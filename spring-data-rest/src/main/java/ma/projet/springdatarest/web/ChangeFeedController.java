@@ -0,0 +1,99 @@
+package ma.projet.springdatarest.web;
+
+import ma.projet.springdatarest.repository.ChangeRows;
+import ma.projet.springdatarest.repository.ChangeRows.Change;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Synchronisation incrémentale /items/changes et /categories/changes (JSON simple, même forme que les variantes
+ * A et C): lots d'au plus limit entrées (modifications et suppressions) après le curseur opaque ?since=
+ * (position (instant, id), début du flux si absent). Seuls les changements plus anciens que app.changes.lag sont
+ * servis: une transaction validée après la lecture d'un lot ne doit pas porter un instant déjà dépassé par le
+ * curseur (updated_at est fixé avant le commit).
+ */
+@RepositoryRestController
+public class ChangeFeedController {
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ChangeRows rows;
+
+    @Value("${app.changes.lag:5s}")
+    private Duration lag;
+
+    @Value("${app.changes.max-limit:1000}")
+    private int maxLimit;
+
+    public ChangeFeedController(ChangeRows rows) {
+        this.rows = rows;
+    }
+
+    /** nextCursor toujours renseigné (position reçue si le lot est vide): à repasser en ?since= au cycle suivant. */
+    public record Changes(List<Change> content, boolean hasNext, String nextCursor) {
+    }
+
+    @GetMapping("/items/changes")
+    @ResponseBody
+    public Changes items(@RequestParam(required = false) String since, @RequestParam(defaultValue = "500") int limit) {
+        Position from = Position.decode(since);
+        int n = limit(limit);
+        return changes(rows.items(from.at(), from.id(), before(), n + 1), from, n);
+    }
+
+    @GetMapping("/categories/changes")
+    @ResponseBody
+    public Changes categories(@RequestParam(required = false) String since, @RequestParam(defaultValue = "500") int limit) {
+        Position from = Position.decode(since);
+        int n = limit(limit);
+        return changes(rows.categories(from.at(), from.id(), before(), n + 1), from, n);
+    }
+
+    private static Changes changes(List<Change> changes, Position from, int limit) {
+        boolean hasNext = changes.size() > limit;
+        List<Change> content = hasNext ? changes.subList(0, limit) : changes;
+        if (content.isEmpty()) return new Changes(content, false, from.encode());
+        Change last = content.get(content.size() - 1);
+        return new Changes(content, hasNext, new Position(last.changedAt(), last.id()).encode());
+    }
+
+    private int limit(int limit) {
+        if (limit < 1) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        return Math.min(limit, maxLimit);
+    }
+
+    // horloge et fuseau de la JVM, ceux de updated_at (le pilote JDBC aligne le fuseau de session sur la JVM)
+    private LocalDateTime before() {
+        return LocalDateTime.now().minus(lag);
+    }
+
+    // curseur: base64url de "instant,id", instant tel que lu de la colonne (microsecondes)
+    private record Position(LocalDateTime at, long id) {
+        static Position decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) return new Position(START, 0L);
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+                int comma = raw.indexOf(',');
+                if (comma < 0) throw new IllegalArgumentException(raw);
+                return new Position(LocalDateTime.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor", e);
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString((at + "," + id).getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
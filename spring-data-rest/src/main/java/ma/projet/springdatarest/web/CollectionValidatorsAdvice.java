@@ -0,0 +1,142 @@
+package ma.projet.springdatarest.web;
+
+import ma.projet.springdatarest.domain.Category;
+import ma.projet.springdatarest.domain.Item;
+import ma.projet.springdatarest.web.projection.ItemSummary;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.projection.TargetAware;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Validateurs des collections (GET /items, /categories, /categories/{id}/items, /items/search/*): ETag fort
+ * "<empreinte des lignes>-<hash>", l'empreinte portant sur (id, version) de chaque ligne de la page puis sur les
+ * champs de page, le hash sur la query et l'Accept (HAL / JSON); Last-Modified = max(updated_at) de la page.
+ * Calculés sur les lignes déjà chargées, juste avant l'écriture du corps: ni requête de version ni COUNT, et un GET
+ * ordinaire reçoit aussi son ETag. 304 sur If-None-Match seulement: Last-Modified est informatif, updated_at étant
+ * posé avant le commit, une ligne plus ancienne validée après coup ne le ferait pas avancer.
+ */
+@ControllerAdvice
+class CollectionValidatorsAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!HttpMethod.GET.equals(request.getMethod()) && !HttpMethod.HEAD.equals(request.getMethod())
+                || !(request instanceof ServletServerHttpRequest req) || !(response instanceof ServletServerHttpResponse res)) {
+            return body;
+        }
+        PageVersion version = PageVersion.of(body);
+        if (version == null) return body;
+        String variant = Integer.toHexString(Objects.hash(req.getServletRequest().getQueryString(),
+                req.getServletRequest().getHeader(HttpHeaders.ACCEPT)));
+        if (version.lastModified != null) {
+            res.getServletResponse().setDateHeader(HttpHeaders.LAST_MODIFIED, version.lastModified.toEpochMilli());
+        }
+        // null: 304 positionné, rien à écrire
+        return new ServletWebRequest(req.getServletRequest(), res.getServletResponse())
+                .checkNotModified(Long.toHexString(version.hash) + "-" + variant) ? null : body;
+    }
+
+    /** Empreinte d'une page: (id, version) de chaque ligne dans l'ordre, puis les champs de page; max(updated_at). */
+    static final class PageVersion {
+        private long hash = 1;
+        private Instant lastModified;
+
+        // null: pas une collection d'items / catégories (entité seule, racine, profil...)
+        static PageVersion of(Object body) {
+            PageVersion version = new PageVersion();
+            if (body instanceof CollectionModel<?> model) {
+                for (Object row : model.getContent()) {
+                    if (!version.row(row)) return null;
+                }
+                if (model instanceof PagedModel<?> paged && paged.getMetadata() != null) {
+                    PagedModel.PageMetadata page = paged.getMetadata();
+                    version.page(page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+                }
+                version.mix(model.hasLink(IanaLinkRelations.NEXT) ? 1 : 0);
+                return version;
+            }
+            if (body instanceof ItemSearchController.SummaryPage page) {
+                for (ItemSummary row : page.content()) version.row(row);
+                version.page(page.page(), page.size(), page.totalElements(), page.totalPages());
+                version.mix(page.hasNext() ? 1 : 0);
+                return version;
+            }
+            if (body instanceof ItemSearchController.HitPage page) {
+                for (ItemSummary row : page.content()) version.row(row);
+                version.page(page.page(), page.size(), page.totalElements(), page.totalPages());
+                version.mix(page.hasNext() ? 1 : 0);
+                return version;
+            }
+            return null;
+        }
+
+        private boolean row(Object row) {
+            if (row instanceof EntityModel<?> model) row = model.getContent();
+            // collection vide: Spring Data REST place une liste vide enveloppée sous _embedded
+            if (row instanceof EmbeddedWrapper wrapper) {
+                return wrapper.getValue() instanceof Collection<?> c && c.isEmpty();
+            }
+            // avant TargetAware: la cible d'une projection sur alias est un tuple, pas l'entité
+            if (row instanceof ItemSummary summary) {
+                row(summary);
+                return true;
+            }
+            if (row instanceof TargetAware projection) row = projection.getTarget();
+            if (row instanceof Item i) {
+                row(i.getId(), i.getVersion(), i.getUpdatedAt());
+            } else if (row instanceof Category c) {
+                row(c.getId(), c.getVersion(), c.getUpdatedAt());
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private void row(ItemSummary row) {
+            row(row.getId(), row.getVersion(), row.getUpdatedAt());
+        }
+
+        private void row(long id, long version, Instant updatedAt) {
+            mix(id);
+            mix(version);
+            if (updatedAt != null && (lastModified == null || updatedAt.isAfter(lastModified))) lastModified = updatedAt;
+        }
+
+        private void page(long number, long size, long totalElements, long totalPages) {
+            mix(number);
+            mix(size);
+            mix(totalElements);
+            mix(totalPages);
+        }
+
+        private void mix(long value) {
+            hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+    }
+}
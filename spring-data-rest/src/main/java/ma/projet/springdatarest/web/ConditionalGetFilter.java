@@ -0,0 +1,77 @@
+package ma.projet.springdatarest.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ma.projet.springdatarest.repository.CategoryRepository;
+import ma.projet.springdatarest.repository.EntityVersion;
+import ma.projet.springdatarest.repository.ItemRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GET conditionnels (If-None-Match / If-Modified-Since -> 304) devant les ressources Spring Data REST,
+ * décidés par requête de version (ni chargement d'entité ni rendu HAL en cas de 304).
+ * ETag "<version>" et Last-Modified émis par Spring Data REST lui-même (@Version, @LastModifiedDate),
+ * qui gère aussi If-Match -> 412 sur PUT/PATCH/DELETE; le filtre ne fait que court-circuiter les 304.
+ * Collections: validateurs calculés sur les lignes de la page chargée (CollectionValidatorsAdvice).
+ */
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+    private static final Pattern ENTITY = Pattern.compile("/(items|categories)/(\\d+)");
+
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+
+    public ConditionalGetFilter(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())
+                || request.getHeader(HttpHeaders.IF_NONE_MATCH) == null && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        Matcher m = ENTITY.matcher(path);
+        if (m.matches()) {
+            Long id = Long.valueOf(m.group(2));
+            Optional<EntityVersion> version = "items".equals(m.group(1))
+                    ? itemRepository.findVersionById(id)
+                    : categoryRepository.findVersionById(id);
+            if (version.isPresent() && entityNotModified(request, version.get())) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                response.setHeader(HttpHeaders.ETAG, "\"" + version.get().version() + "\"");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // même format d'ETag que Spring Data REST ("<version>"); If-Modified-Since ignoré si If-None-Match est présent
+    private static boolean entityNotModified(HttpServletRequest request, EntityVersion version) {
+        HttpHeaders headers = new ServletServerHttpRequest(request).getHeaders();
+        List<String> ifNoneMatch = headers.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String etag = "\"" + version.version() + "\"";
+            return ifNoneMatch.stream().anyMatch(tag -> tag.equals("*") || tag.replaceFirst("^W/", "").equals(etag));
+        }
+        long ifModifiedSince = headers.getIfModifiedSince();
+        return ifModifiedSince >= 0 && version.lastModified() != null
+                && version.lastModified().toEpochMilli() / 1000 <= ifModifiedSince / 1000;
+    }
+}
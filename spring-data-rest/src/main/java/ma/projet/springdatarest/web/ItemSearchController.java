@@ -0,0 +1,143 @@
+package ma.projet.springdatarest.web;
+
+import ma.projet.springdatarest.domain.Item;
+import ma.projet.springdatarest.repository.ItemFilter;
+import ma.projet.springdatarest.repository.ItemRepository;
+import ma.projet.springdatarest.web.projection.ItemHit;
+import ma.projet.springdatarest.web.projection.ItemSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.RepositorySearchesResource;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.RepresentationModelProcessor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Recherche filtrée /items/search/filter: critères optionnels combinés (categoryId, minPrice, maxPrice,
+ * inStock=true, updatedSince ISO-8601) par Specification, ce qu'une méthode de requête dérivée ne sait pas faire
+ * sans un (:p is null or ...) qui désactive les index. Pagination, sort=id|price|updatedAt[,asc|desc] et
+ * ?projection= comme les autres méthodes de recherche; tri départagé par id.
+ * Recherche texte /items/search/text?q=: JSON simple de même forme que GET /items/search des variantes A et C
+ * (la projection ItemHit n'est pas une entité, Spring Data REST ne sait pas la rendre en HAL), avec maxResults,
+ * borne des résultats accessibles par pagination. Recherches /items/search/summary et summaryByCategoryId: même
+ * JSON simple, page d'ItemSummary avec totaux. Liens "filter", "text", "summary" et "summaryByCategoryId" ajoutés
+ * à /items/search.
+ */
+@RepositoryRestController
+public class ItemSearchController {
+    private static final List<String> SORTS = List.of("id", "price", "updatedAt");
+    // meilleurs résultats gardés par requête texte (limit de la CTE hits), borne de la pagination
+    static final int MAX_RESULTS = 1000;
+
+    private final ItemRepository itemRepository;
+    private final PagedResourcesAssembler<Item> pagedAssembler;
+
+    public ItemSearchController(ItemRepository itemRepository, PagedResourcesAssembler<Item> pagedAssembler) {
+        this.itemRepository = itemRepository;
+        this.pagedAssembler = pagedAssembler;
+    }
+
+    @GetMapping("/items/search/filter")
+    @ResponseBody
+    public PagedModel<PersistentEntityResource> filter(@RequestParam(required = false) Long categoryId,
+                                                       @RequestParam(required = false) BigDecimal minPrice,
+                                                       @RequestParam(required = false) BigDecimal maxPrice,
+                                                       @RequestParam(defaultValue = "false") boolean inStock,
+                                                       @RequestParam(required = false) String updatedSince,
+                                                       Pageable pageable, PersistentEntityResourceAssembler assembler) {
+        ItemFilter filter;
+        try {
+            filter = new ItemFilter(categoryId, minPrice, maxPrice, inStock, updatedSince != null ? Instant.parse(updatedSince) : null);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid updatedSince, expected ISO-8601 instant", e);
+        }
+        Page<Item> page = itemRepository.findAll(filter.toSpecification(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort(pageable.getSort())));
+        return pagedAssembler.toModel(page, assembler::toModel);
+    }
+
+    /** Page sans COUNT (totalElements et totalPages à -1), comme PageResponse des variantes A et C. */
+    public record HitPage(List<ItemHit> content, int page, int size, long totalElements, int totalPages,
+                          boolean hasNext, int maxResults) {
+    }
+
+    @GetMapping("/items/search/text")
+    @ResponseBody
+    public HitPage text(@RequestParam(required = false) String q,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size) {
+        if (q == null || q.isBlank()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+        Slice<ItemHit> hits = itemRepository.findByText(q.strip(), MAX_RESULTS, PageRequest.of(page, size));
+        return new HitPage(hits.getContent(), hits.getNumber(), hits.getSize(), -1, -1, hits.hasNext(), MAX_RESULTS);
+    }
+
+    /** Page d'ItemSummary avec totaux, comme PageResponse des variantes A et C. */
+    public record SummaryPage(List<ItemSummary> content, int page, int size, long totalElements, int totalPages,
+                              boolean hasNext) {
+        static SummaryPage of(Page<ItemSummary> page) {
+            return new SummaryPage(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                    page.getTotalPages(), page.hasNext());
+        }
+    }
+
+    @GetMapping("/items/search/summary")
+    @ResponseBody
+    public SummaryPage summary(Pageable pageable) {
+        return SummaryPage.of(itemRepository.findSummaryBy(pageable));
+    }
+
+    @GetMapping("/items/search/summaryByCategoryId")
+    @ResponseBody
+    public SummaryPage summaryByCategoryId(@RequestParam Long categoryId, Pageable pageable) {
+        return SummaryPage.of(itemRepository.findSummaryByCategoryId(categoryId, pageable));
+    }
+
+    // colonnes indexées uniquement, id ajouté en dernier critère (même sens que le premier)
+    private static Sort sort(Sort sort) {
+        if (sort.isUnsorted()) return Sort.by("id");
+        Sort.Direction direction = null;
+        for (Sort.Order order : sort) {
+            if (!SORTS.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid sort '" + order.getProperty() + "', expected one of " + SORTS);
+            }
+            if (direction == null) direction = order.getDirection();
+        }
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    @Component
+    static class SearchLink implements RepresentationModelProcessor<RepositorySearchesResource> {
+        @Override
+        public RepositorySearchesResource process(RepositorySearchesResource resource) {
+            if (Item.class.equals(resource.getDomainType())) {
+                String href = ServletUriComponentsBuilder.fromCurrentContextPath().path("/items/search/filter").toUriString();
+                resource.add(Link.of(href + "{?categoryId,minPrice,maxPrice,inStock,updatedSince,page,size,sort,projection}", "filter"));
+                String text = ServletUriComponentsBuilder.fromCurrentContextPath().path("/items/search/text").toUriString();
+                resource.add(Link.of(text + "{?q,page,size}", "text"));
+                String summary = ServletUriComponentsBuilder.fromCurrentContextPath().path("/items/search/summary").toUriString();
+                resource.add(Link.of(summary + "{?page,size,sort}", "summary"));
+                resource.add(Link.of(summary + "ByCategoryId{?categoryId,page,size,sort}", "summaryByCategoryId"));
+            }
+            return resource;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package ma.projet.springdatarest.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Réponses de liste déjà sérialisées (octets UTF-8 + Content-Type / ETag / Last-Modified), servies par
+ * ResponseCacheFilter sans requête SQL ni travail Jackson. LRU borné en octets (app.response-cache.max-bytes).
+ * Invalidation par les handlers d'écriture: les pages Spring Data REST n'ont pas d'ORDER BY par défaut (et
+ * acceptent ?sort=), un UPDATE peut réordonner une page OFFSET; une création / mise à jour / suppression retire
+ * donc toutes les pages de sa catégorie (les deux en cas de déplacement) et de la liste globale, plus celles qui
+ * listent l'item (ids relevés dans le corps au remplissage). Le TTL borne la dérive due aux écritures d'autres
+ * instances.
+ */
+@Component
+public class ResponseCache {
+    enum Kind { ITEMS, CATEGORIES }
+
+    /**
+     * categoryId: filtre de la liste d'items (null = liste globale); ids: ids listés dans la page, triés;
+     * etag: celui de la réponse ou une empreinte du corps (ResponseCacheFilter), jamais null;
+     * vary: en-têtes Vary rejoués sur un hit (ceux de la réponse d'origine, plus Accept et Accept-Encoding);
+     * encoded: variantes compressées (gzip, deflate) calculées au premier client qui les accepte.
+     */
+    record Entry(byte[] body, String contentType, String etag, String lastModified, List<String> vary,
+                 Kind kind, Long categoryId, long[] ids, long storedAt, Map<String, byte[]> encoded) {
+        Entry(byte[] body, String contentType, String etag, String lastModified, List<String> vary,
+              Kind kind, Long categoryId, long[] ids, long storedAt) {
+            this(body, contentType, etag, lastModified, vary, kind, categoryId, ids, storedAt, new ConcurrentHashMap<>());
+        }
+
+        boolean contains(long id) { return Arrays.binarySearch(ids, id) >= 0; }
+
+        long size() {
+            long n = body.length;
+            for (byte[] b : encoded.values()) n += b.length;
+            return n;
+        }
+    }
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    // incrémenté à chaque invalidation: un remplissage commencé avant n'est pas stocké (lecture antérieure à l'écriture)
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ResponseCache(MeterRegistry registry,
+                         @Value("${app.response-cache.enabled:false}") boolean enabled,
+                         @Value("${app.response-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${app.response-cache.max-entry-bytes:1048576}") int maxEntryBytes,
+                         @Value("${app.response-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("http.response.cache").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("http.response.cache").tag("result", "miss").register(registry);
+        this.evictions = Counter.builder("http.response.cache.evictions").register(registry);
+        Gauge.builder("http.response.cache.bytes", this, c -> c.size()).baseUnit("bytes").register(registry);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    long generation() { return generation.get(); }
+
+    synchronized Entry get(String key) {
+        Entry e = entries.get(key);
+        if (e != null && System.currentTimeMillis() - e.storedAt() > ttlMillis) {
+            remove(key);
+            e = null;
+        }
+        (e != null ? hits : misses).increment();
+        return e;
+    }
+
+    /** Stocke la réponse si aucune invalidation n'a eu lieu depuis le début de la requête (startGeneration). */
+    synchronized void put(String key, Entry entry, long startGeneration) {
+        if (entry.body().length > maxEntryBytes || generation.get() != startGeneration) return;
+        remove(key);
+        entries.put(key, entry);
+        bytes += entry.size();
+        trim();
+    }
+
+    /**
+     * Corps compressé de l'entrée, calculé une fois (hors verrou) puis gardé avec elle et compté dans max-bytes;
+     * pas gardé si l'entrée a été retirée entre-temps.
+     */
+    byte[] encoded(String key, Entry entry, String encoding, BiFunction<String, byte[], byte[]> compressor) {
+        byte[] cached = entry.encoded().get(encoding);
+        if (cached != null) return cached;
+        byte[] compressed = compressor.apply(encoding, entry.body());
+        synchronized (this) {
+            if (entries.get(key) == entry && entry.encoded().putIfAbsent(encoding, compressed) == null) {
+                bytes += compressed.length;
+                trim();
+            }
+        }
+        return compressed;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().getValue().size();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // --- invalidation, appelée par les handlers d'écriture après l'écriture ---
+
+    public void itemCreated(Long categoryId) {
+        invalidate(e -> e.kind() == Kind.ITEMS && (e.categoryId() == null || e.categoryId().equals(categoryId)));
+    }
+
+    /** Pages de l'ancienne et de la nouvelle catégorie, liste globale, et toute autre page qui liste l'item. */
+    public void itemUpdated(long id, Long previousCategoryId, Long categoryId) {
+        invalidate(e -> e.kind() == Kind.ITEMS && (e.contains(id) || e.categoryId() == null
+                || e.categoryId().equals(previousCategoryId) || e.categoryId().equals(categoryId)));
+    }
+
+    public void itemDeleted(Long categoryId) {
+        itemCreated(categoryId);
+    }
+
+    /** Écritures en lot: toutes les listes d'items. */
+    public void itemsChanged() {
+        invalidate(e -> e.kind() == Kind.ITEMS);
+    }
+
+    public void categoryCreated() {
+        invalidate(e -> e.kind() == Kind.CATEGORIES);
+    }
+
+    // pages de catégories sans ORDER BY: toutes
+    public void categoryUpdated(long id) {
+        invalidate(e -> e.kind() == Kind.CATEGORIES);
+    }
+
+    /** Catégorie supprimée avec ses items: listes de catégories, ses pages d'items et la liste globale. */
+    public void categoryDeleted(long id) {
+        invalidate(e -> e.kind() == Kind.CATEGORIES
+                || e.categoryId() == null || e.categoryId() == id);
+    }
+
+    private void invalidate(Predicate<Entry> stale) {
+        if (!enabled) return;
+        evict(stale);
+        // handler transactionnel: une page relue avant le commit peut encore être stockée, seconde passe après commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(stale);
+                }
+            });
+        }
+    }
+
+    private void evict(Predicate<Entry> stale) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry e = it.next();
+                if (stale.test(e)) {
+                    bytes -= e.size();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) bytes -= old.size();
+    }
+
+    private synchronized long size() {
+        return bytes;
+    }
+}
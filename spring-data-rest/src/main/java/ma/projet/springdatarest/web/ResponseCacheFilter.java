@@ -0,0 +1,195 @@
+package ma.projet.springdatarest.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ma.projet.springdatarest.config.ResponseCompression;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cache de réponses sérialisées devant GET /items, GET /items/search/*, GET /categories et
+ * GET /categories/{id}/items (app.response-cache.enabled). Clé: chemin + paramètres triés + Accept (HAL et JSON
+ * simple sont deux entrées). Hit: octets écrits tels quels (ou 304 sur If-None-Match), avant le limiteur
+ * d'admission et ConditionalGetFilter puisqu'aucune connexion n'est prise.
+ * Compression active: la variante gzip / deflate d'une entrée est calculée une fois puis servie telle quelle.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 8)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final Pattern CATEGORY_ITEMS = Pattern.compile("/categories/(\\d+)/items");
+    // hors /items/search/filter (ItemSearchController) et /items/search/text: une mise à jour peut faire entrer un
+    // item dans une page filtrée où il n'était pas, ce que l'invalidation par ids ne voit pas
+    private static final Pattern SEARCH = Pattern.compile("/items/search/(?!(filter|text)$)\\w+");
+
+    private final ResponseCache cache;
+    private final ResponseCompression compression;
+
+    public ResponseCacheFilter(ResponseCache cache, ResponseCompression compression) {
+        this.cache = cache;
+        this.compression = compression;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !cache.isEnabled() || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        ResponseCache.Kind kind;
+        Long categoryId;
+        Matcher m = CATEGORY_ITEMS.matcher(path);
+        if (path.equals("/items")) {
+            kind = ResponseCache.Kind.ITEMS;
+            categoryId = longParam(request, "categoryId");
+        } else if (SEARCH.matcher(path).matches()) {
+            // méthodes de recherche: catégorie en paramètre "categoryId" ou "cid" selon la méthode
+            kind = ResponseCache.Kind.ITEMS;
+            categoryId = request.getParameter("categoryId") != null ? longParam(request, "categoryId") : longParam(request, "cid");
+        } else if (m.matches()) {
+            kind = ResponseCache.Kind.ITEMS;
+            categoryId = Long.valueOf(m.group(1));
+        } else if (path.equals("/categories")) {
+            kind = ResponseCache.Kind.CATEGORIES;
+            categoryId = null;
+        } else {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = key(path, request);
+        ResponseCache.Entry hit = cache.get(key);
+        if (hit != null) {
+            write(key, hit, request, response);
+            return;
+        }
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            // la clé porte Accept: miss et hit annoncent la même variation
+            if (varyValues(wrapper).noneMatch(HttpHeaders.ACCEPT::equalsIgnoreCase)) wrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            // corps JSON seulement: les ids servant à l'invalidation sont relevés dans le texte (pas en Smile / CBOR / Protobuf)
+            String contentType = wrapper.getContentType();
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && contentType != null && contentType.contains("json")) {
+                byte[] body = wrapper.getContentAsByteArray();
+                // validateur de l'entrée toujours présent, quel que soit le chemin qui l'a remplie: ETag de la
+                // réponse, à défaut une empreinte du corps (émise aussi sur ce miss, le hit annonce la même)
+                if (wrapper.getHeader(HttpHeaders.ETAG) == null) wrapper.setHeader(HttpHeaders.ETAG, etag(body));
+                cache.put(key, new ResponseCache.Entry(body, contentType, wrapper.getHeader(HttpHeaders.ETAG),
+                        wrapper.getHeader(HttpHeaders.LAST_MODIFIED), vary(wrapper, contentType), kind, categoryId, ids(body), System.currentTimeMillis()), generation);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void write(String key, ResponseCache.Entry hit, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, hit.etag());
+        if (hit.lastModified() != null) response.setHeader(HttpHeaders.LAST_MODIFIED, hit.lastModified());
+        for (String v : hit.vary()) response.addHeader(HttpHeaders.VARY, v);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null
+                && Arrays.stream(ifNoneMatch.split(",")).map(String::trim).anyMatch(t -> t.equals("*") || t.equals(hit.etag()))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(hit.contentType());
+        byte[] body = hit.body();
+        // CompressionFilter laisse passer un corps déjà encodé (et le Vary: Accept-Encoding de l'entrée)
+        String encoding = compression.compressible(hit.contentType())
+                ? compression.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), hit.contentType(), body.length) : null;
+        if (encoding != null) {
+            body = cache.encoded(key, hit, encoding, compression::compress);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String etag(byte[] body) {
+        return "\"" + Integer.toHexString(body.length) + "-" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+    }
+
+    // Vary de la réponse d'origine (Accept, CORS...) + Accept-Encoding si un hit
+    // peut être servi compressé: CompressionFilter, plus externe, ne l'a pas encore ajouté à ce stade
+    private List<String> vary(HttpServletResponse response, String contentType) {
+        Set<String> vary = new LinkedHashSet<>();
+        varyValues(response).forEach(vary::add);
+        if (compression.isEnabled() && compression.compressible(contentType)) vary.add(HttpHeaders.ACCEPT_ENCODING);
+        return List.copyOf(vary);
+    }
+
+    private static Stream<String> varyValues(HttpServletResponse response) {
+        return response.getHeaders(HttpHeaders.VARY).stream()
+                .flatMap(h -> Arrays.stream(h.split(","))).map(String::trim).filter(v -> !v.isEmpty());
+    }
+
+    // chemin + paramètres triés par nom (valeurs dans l'ordre reçu) + Accept
+    private static String key(String path, HttpServletRequest request) {
+        StringBuilder sb = new StringBuilder(path).append('?');
+        for (Map.Entry<String, String[]> p : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String v : p.getValue()) sb.append(p.getKey()).append('=').append(v).append('&');
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return sb.append('|').append(accept != null ? accept : "").toString();
+    }
+
+    private static Long longParam(HttpServletRequest request, String name) {
+        String v = request.getParameter(name);
+        if (v == null) return null;
+        try {
+            return Long.valueOf(v);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ids listés dans la page: valeurs des champs "id" (items ou catégories), relevées sans parser le JSON
+    static long[] ids(byte[] body) {
+        byte[] field = {'"', 'i', 'd', '"', ':'};
+        long[] ids = new long[16];
+        int n = 0;
+        outer:
+        for (int i = 0; i + field.length < body.length; i++) {
+            for (int j = 0; j < field.length; j++) {
+                if (body[i + j] != field[j]) continue outer;
+            }
+            int k = i + field.length;
+            long v = 0;
+            boolean digit = false;
+            while (k < body.length && body[k] >= '0' && body[k] <= '9') {
+                v = v * 10 + (body[k++] - '0');
+                digit = true;
+            }
+            if (digit) {
+                if (n == ids.length) ids = Arrays.copyOf(ids, n * 2);
+                ids[n++] = v;
+            }
+            i = k - 1;
+        }
+        ids = Arrays.copyOf(ids, n);
+        Arrays.sort(ids);
+        return ids;
+    }
+}
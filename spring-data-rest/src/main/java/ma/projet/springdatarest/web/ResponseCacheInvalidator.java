@@ -0,0 +1,106 @@
+package ma.projet.springdatarest.web;
+
+import ma.projet.springdatarest.domain.Category;
+import ma.projet.springdatarest.domain.Item;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkSave;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.HandleBeforeDelete;
+import org.springframework.data.rest.core.annotation.HandleBeforeLinkSave;
+import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Invalidation de ResponseCache sur les écritures exposées par Spring Data REST (POST/PUT/PATCH/DELETE et
+ * PUT /items/{id}/category). L'entité reçue par @HandleBeforeSave porte déjà les nouvelles valeurs: la
+ * catégorie d'origine est relue en base (hors transaction, donc valeur commitée) pour détecter un déplacement.
+ */
+@Component
+@RepositoryEventHandler
+public class ResponseCacheInvalidator {
+    private final ResponseCache cache;
+    private final JdbcTemplate jdbcTemplate;
+    // catégorie avant écriture, de before* à after* dans le même thread de requête
+    private final ThreadLocal<Long> previousCategory = new ThreadLocal<>();
+
+    public ResponseCacheInvalidator(ResponseCache cache, JdbcTemplate jdbcTemplate) {
+        this.cache = cache;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @HandleAfterCreate
+    public void itemCreated(Item item) {
+        if (cache.isEnabled()) cache.itemCreated(categoryId(item));
+    }
+
+    @HandleBeforeSave
+    public void beforeItemSave(Item item) {
+        if (cache.isEnabled()) previousCategory.set(storedCategoryId(item.getId()));
+    }
+
+    @HandleAfterSave
+    public void itemSaved(Item item) {
+        if (!cache.isEnabled()) return;
+        try {
+            cache.itemUpdated(item.getId(), previousCategory.get(), categoryId(item));
+        } finally {
+            previousCategory.remove();
+        }
+    }
+
+    @HandleBeforeLinkSave
+    public void beforeItemLinkSave(Item item, Object linked) {
+        beforeItemSave(item);
+    }
+
+    @HandleAfterLinkSave
+    public void itemLinkSaved(Item item, Object linked) {
+        itemSaved(item);
+    }
+
+    @HandleBeforeDelete
+    public void beforeItemDelete(Item item) {
+        if (cache.isEnabled()) previousCategory.set(storedCategoryId(item.getId()));
+    }
+
+    @HandleAfterDelete
+    public void itemDeleted(Item item) {
+        if (!cache.isEnabled()) return;
+        try {
+            cache.itemDeleted(previousCategory.get());
+        } finally {
+            previousCategory.remove();
+        }
+    }
+
+    @HandleAfterCreate
+    public void categoryCreated(Category category) {
+        if (cache.isEnabled()) cache.categoryCreated();
+    }
+
+    @HandleAfterSave
+    public void categorySaved(Category category) {
+        if (cache.isEnabled()) cache.categoryUpdated(category.getId());
+    }
+
+    @HandleAfterDelete
+    public void categoryDeleted(Category category) {
+        if (cache.isEnabled()) cache.categoryDeleted(category.getId());
+    }
+
+    // getId() sur le proxy LAZY ne déclenche pas de chargement
+    private static Long categoryId(Item item) {
+        return item.getCategory() != null ? item.getCategory().getId() : null;
+    }
+
+    private Long storedCategoryId(Long itemId) {
+        if (itemId == null) return null;
+        List<Long> ids = jdbcTemplate.queryForList("select category_id from item where id = ?", Long.class, itemId);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+}
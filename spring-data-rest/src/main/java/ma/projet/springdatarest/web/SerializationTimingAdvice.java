@@ -0,0 +1,30 @@
+package ma.projet.springdatarest.web;
+
+import ma.projet.springdatarest.config.RequestTiming;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Début de la phase "serialization" de RequestTiming: appelé juste avant l'écriture du corps (rendu HAL compris),
+ * y compris pour les contrôleurs Spring Data REST (RepositoryRestHandlerAdapter applique les ResponseBodyAdvice).
+ */
+@ControllerAdvice
+class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTiming.serializationStarted();
+        return body;
+    }
+}
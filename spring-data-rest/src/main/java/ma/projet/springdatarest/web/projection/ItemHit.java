@@ -0,0 +1,9 @@
+package ma.projet.springdatarest.web.projection;
+
+/**
+ * Résultat de la recherche texte /items/search/text: champs d'ItemSummary (sans description) et score de
+ * pertinence, projection fermée sur les alias de la requête native.
+ */
+public interface ItemHit extends ItemSummary {
+    float getRank();
+}
@@ -0,0 +1,26 @@
+package ma.projet.springdatarest.web.projection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Item sans description, retourné par les recherches /items/search/summary*: projection fermée sur les alias
+ * de la requête, le SELECT ne lit pas la colonne description.
+ */
+public interface ItemSummary {
+    Long getId();
+    String getSku();
+    String getName();
+    BigDecimal getPrice();
+    int getStock();
+    Long getCategoryId();
+
+    // validateurs des pages (CollectionValidatorsAdvice), non sérialisés
+    @JsonIgnore
+    long getVersion();
+
+    @JsonIgnore
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,16 @@
+package ma.projet.springdatarest.web.projection;
+
+import ma.projet.springdatarest.domain.Item;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * ?projection=itemSummary sur /items et /items/{id}: même forme qu'ItemSummary, mais rendue depuis l'entité
+ * chargée en entier (description lue en base puis ignorée); les recherches summary* évitent cette lecture.
+ */
+@Projection(name = "itemSummary", types = Item.class)
+public interface ItemSummaryView extends ItemSummary {
+    @Override
+    @Value("#{target.category.id}")
+    Long getCategoryId();
+}
@@ -0,0 +1,10 @@
+-- Filtres et tris serveur de GET /items (prix, en stock, récents d'abord): un index par combinaison,
+-- id en dernière colonne pour le départage du tri (ORDER BY <colonne>, id) sans tri supplémentaire.
+-- Index partiels "WHERE stock > 0" pour inStock=true (le critère est rendu en littéral, pas en paramètre lié).
+CREATE INDEX IF NOT EXISTS idx_item_price_id ON item(price, id);
+CREATE INDEX IF NOT EXISTS idx_item_category_price ON item(category_id, price, id);
+CREATE INDEX IF NOT EXISTS idx_item_category_updated ON item(category_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_item_in_stock_id ON item(id) WHERE stock > 0;
+CREATE INDEX IF NOT EXISTS idx_item_in_stock_price ON item(price, id) WHERE stock > 0;
+CREATE INDEX IF NOT EXISTS idx_item_in_stock_updated ON item(updated_at, id) WHERE stock > 0;
+CREATE INDEX IF NOT EXISTS idx_item_category_in_stock ON item(category_id, id) WHERE stock > 0;
@@ -0,0 +1,64 @@
+package ma.projet.webflux.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Même métrique que les variantes servlet (http_server_phases_seconds, mêmes routes et seuils SLO), phase "total"
+ * seulement: sur la boucle d'événements Netty, attente de connexion R2DBC, requêtes et encodage s'entrelacent
+ * entre requêtes sans thread dédié, un découpage par ThreadLocal n'aurait pas de sens.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "app.latency.enabled", havingValue = "true")
+public class RequestTimingWebFilter implements WebFilter {
+    private static final Pattern ID = Pattern.compile("/\\d+(?=/|$)");
+    private static final Set<String> ROUTES = Set.of("/items", "/items/{id}", "/items/export",
+            "/categories", "/categories/{id}", "/categories/{id}/items");
+
+    private final Meter.MeterProvider<Timer> phases;
+
+    public RequestTimingWebFilter(MeterRegistry registry,
+                                  @Value("${app.latency.slo:5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s}") Duration[] slo) {
+        this.phases = Timer.builder("http.server.phases")
+                .description("Latence serveur par phase (total uniquement en WebFlux)")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(slo)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .withRegistry(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (path.startsWith("/actuator")) return chain.filter(exchange);
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> record(exchange, path, signal, start));
+    }
+
+    private void record(ServerWebExchange exchange, String path, SignalType signal, long start) {
+        HttpStatusCode code = exchange.getResponse().getStatusCode();
+        String status = signal == SignalType.CANCEL ? "cancelled" : Integer.toString(code != null ? code.value() : 200);
+        String route = ID.matcher(path).replaceAll("/{id}");
+        phases.withTags("method", exchange.getRequest().getMethod().name(), "route", ROUTES.contains(route) ? route : "other",
+                "status", status, "phase", "total").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,41 @@
+package ma.projet.webflux.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Table("category")
+public class Category {
+    @Id
+    private Long id;
+
+    private String code;
+
+    private String name;
+
+    @Column("updated_at")
+    private Instant updatedAt = Instant.now();
+
+    // verrouillage optimiste (cf. Item.version)
+    @Version
+    private Long version;
+
+    public void touch() {
+        this.updatedAt = Instant.now();
+    }
+
+    // getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
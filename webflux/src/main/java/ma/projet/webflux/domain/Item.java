@@ -0,0 +1,65 @@
+package ma.projet.webflux.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Ligne de la table item (même schéma que les variantes JPA). Pas d'association: la catégorie
+ * est une simple clé étrangère, donc aucun chargement paresseux ni N+1 possible.
+ */
+@Table("item")
+public class Item {
+    // DEFAULT nextval('item_id_seq') côté base (incrément 50 depuis V2, les trous sont sans effet)
+    @Id
+    private Long id;
+
+    private String sku;
+
+    private String name;
+
+    private BigDecimal price;
+
+    private int stock;
+
+    @Column("category_id")
+    private Long categoryId;
+
+    private String description; // used to build 5 KB payloads
+
+    @Column("updated_at")
+    private Instant updatedAt = Instant.now();
+
+    // verrouillage optimiste: UPDATE ... WHERE id = ? AND version = ?, ETag des ressources.
+    // Type objet: avec un long, Spring Data prendrait les lignes en version 0 pour des lignes neuves (INSERT)
+    @Version
+    private Long version;
+
+    public void touch() {
+        this.updatedAt = Instant.now();
+    }
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    public int getStock() { return stock; }
+    public void setStock(int stock) { this.stock = stock; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
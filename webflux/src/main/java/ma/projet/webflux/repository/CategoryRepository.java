@@ -0,0 +1,17 @@
+package ma.projet.webflux.repository;
+
+import ma.projet.webflux.domain.Category;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CategoryRepository extends ReactiveCrudRepository<Category, Long> {
+    @Query("select * from category order by id limit :limit offset :offset")
+    Flux<Category> findPage(@Param("offset") long offset, @Param("limit") int limit);
+
+    // Validateurs HTTP (ETag / Last-Modified): version lue sans charger la ligne complète
+    @Query("select version, updated_at as last_modified from category where id = :id")
+    Mono<EntityVersion> findVersionById(@Param("id") Long id);
+}
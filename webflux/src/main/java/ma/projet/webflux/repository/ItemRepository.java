@@ -0,0 +1,45 @@
+package ma.projet.webflux.repository;
+
+import ma.projet.webflux.domain.Item;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Requêtes SQL explicites (LIMIT/OFFSET): l'ordre par id rend les pages stables et une page sans COUNT
+ * peut lire size+1 lignes pour calculer hasNext.
+ */
+public interface ItemRepository extends ReactiveCrudRepository<Item, Long>, ItemRepositoryCustom {
+    @Query("select * from item order by id limit :limit offset :offset")
+    Flux<Item> findPage(@Param("offset") long offset, @Param("limit") int limit);
+
+    @Query("select * from item where category_id = :cid order by id limit :limit offset :offset")
+    Flux<Item> findPageByCategoryId(@Param("cid") Long categoryId, @Param("offset") long offset, @Param("limit") int limit);
+
+    Mono<Long> countByCategoryId(Long categoryId);
+
+    // Pagination keyset (seek): id > :after, sans OFFSET ni COUNT
+    @Query("select * from item where id > :after order by id limit :limit")
+    Flux<Item> findAfter(@Param("after") long after, @Param("limit") int limit);
+
+    @Query("select * from item where category_id = :cid and id > :after order by id limit :limit")
+    Flux<Item> findAfterByCategoryId(@Param("cid") Long categoryId, @Param("after") long after, @Param("limit") int limit);
+
+    // Export NDJSON: lignes émises à la demande du client (backpressure), mémoire constante
+    @Query("select * from item order by id")
+    Flux<Item> streamAll();
+
+    @Query("select category_id from item where id = :id")
+    Mono<Long> findCategoryIdById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from item where category_id = :cid")
+    Mono<Long> deleteByCategoryId(@Param("cid") Long categoryId);
+
+    // Validateurs HTTP (ETag / Last-Modified): version lue sans charger la ligne complète
+    @Query("select version, updated_at as last_modified from item where id = :id")
+    Mono<EntityVersion> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,15 @@
+package ma.projet.webflux.repository;
+
+import ma.projet.webflux.web.dto.ItemDto;
+import reactor.core.publisher.Mono;
+
+/**
+ * Écritures conditionnelles (If-Match) en une seule requête SQL.
+ */
+public interface ItemRepositoryCustom {
+    /** UPDATE ... WHERE id = ? AND version = ?; émet l'ancienne catégorie, vide si aucune ligne (version ou id). */
+    Mono<Long> updateIfVersion(Long id, long version, ItemDto dto);
+
+    /** DELETE ... WHERE id = ? AND version = ?; émet la catégorie supprimée, vide si aucune ligne. */
+    Mono<Long> deleteIfVersion(Long id, long version);
+}
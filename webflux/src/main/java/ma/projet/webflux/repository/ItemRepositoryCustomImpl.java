@@ -0,0 +1,45 @@
+package ma.projet.webflux.repository;
+
+import ma.projet.webflux.web.dto.ItemDto;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private final DatabaseClient db;
+
+    ItemRepositoryCustomImpl(DatabaseClient db) {
+        this.db = db;
+    }
+
+    @Override
+    public Mono<Long> updateIfVersion(Long id, long version, ItemDto dto) {
+        // "from item o": o voit la ligne avant mise à jour -> ancienne catégorie dans le RETURNING.
+        // updated_at: horloge de la JVM comme Item.touch(), pas now()
+        DatabaseClient.GenericExecuteSpec spec = db.sql(
+                        "update item i set sku = :sku, name = :name, price = :price, stock = :stock, category_id = :cid, "
+                                + "description = :description, updated_at = :updatedAt, version = i.version + 1 "
+                                + "from item o where o.id = i.id and i.id = :id and i.version = :version returning o.category_id")
+                .bind("sku", dto.getSku())
+                .bind("name", dto.getName())
+                .bind("price", dto.getPrice() != null ? dto.getPrice() : BigDecimal.ZERO)
+                .bind("stock", dto.getStock())
+                .bind("cid", dto.getCategoryId())
+                .bind("updatedAt", Instant.now())
+                .bind("id", id)
+                .bind("version", version);
+        spec = dto.getDescription() != null ? spec.bind("description", dto.getDescription()) : spec.bindNull("description", String.class);
+        return spec.map(row -> row.get(0, Long.class)).first();
+    }
+
+    @Override
+    public Mono<Long> deleteIfVersion(Long id, long version) {
+        return db.sql("delete from item where id = :id and version = :version returning category_id")
+                .bind("id", id)
+                .bind("version", version)
+                .map(row -> row.get(0, Long.class))
+                .first();
+    }
+}
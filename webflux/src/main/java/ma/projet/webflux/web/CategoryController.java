@@ -0,0 +1,126 @@
+package ma.projet.webflux.web;
+
+import ma.projet.webflux.domain.Category;
+import ma.projet.webflux.repository.CategoryRepository;
+import ma.projet.webflux.repository.ItemRepository;
+import ma.projet.webflux.web.dto.CategoryDto;
+import ma.projet.webflux.web.dto.ItemDto;
+import ma.projet.webflux.web.dto.PageResponse;
+import ma.projet.webflux.web.mapper.DtoMappers;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/categories")
+public class CategoryController {
+    private final CategoryRepository categoryRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionalOperator tx;
+
+    public CategoryController(CategoryRepository categoryRepository, ItemRepository itemRepository, TransactionalOperator tx) {
+        this.categoryRepository = categoryRepository;
+        this.itemRepository = itemRepository;
+        this.tx = tx;
+    }
+
+    @GetMapping
+    public Mono<PageResponse<CategoryDto>> list(@RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(defaultValue = "true") boolean count,
+                                                ServerWebExchange exchange) {
+        Pageable pageable = PageRequest.of(page, size);
+        int limit = count ? size : size + 1;
+        Mono<List<Category>> rows = categoryRepository.findPage(pageable.getOffset(), limit).collectList();
+        Mono<PageResponse<CategoryDto>> body = count
+                ? Mono.zip(rows, categoryRepository.count(), (r, n) -> PageResponse.from(new PageImpl<>(r, pageable, n), DtoMappers::toDto))
+                : rows.map(r -> PageResponse.from(Slices.of(r, pageable), DtoMappers::toDto));
+        return body.filter(b -> !HttpValidators.notModified(exchange, b));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CategoryDto>> get(@PathVariable Long id, ServerWebExchange exchange) {
+        return categoryRepository.findVersionById(id)
+                .flatMap(version -> HttpValidators.notModified(exchange, id, version)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<CategoryDto>build())
+                        : categoryRepository.findById(id).map(c -> ResponseEntity.ok(DtoMappers.toDto(c))))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<CategoryDto>> create(@Validated @RequestBody CategoryDto dto) {
+        Category c = new Category();
+        c.setCode(dto.getCode());
+        c.setName(dto.getName());
+        return categoryRepository.save(c)
+                .map(saved -> ResponseEntity.created(URI.create("/categories/" + saved.getId())).body(DtoMappers.toDto(saved)));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<CategoryDto>> update(@PathVariable Long id, @Validated @RequestBody CategoryDto dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return categoryRepository.findById(id)
+                .flatMap(c -> {
+                    // catégories: peu d'écritures, lecture puis UPDATE ... WHERE version = ? par Spring Data
+                    if (!matches(c, ifMatch)) return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<CategoryDto>build());
+                    c.setCode(dto.getCode());
+                    c.setName(dto.getName());
+                    c.touch();
+                    return categoryRepository.save(c).map(saved -> ResponseEntity.ok()
+                            .eTag(HttpValidators.etag(id, saved.getVersion()))
+                            .body(DtoMappers.toDto(saved)));
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return categoryRepository.findById(id)
+                .flatMap(c -> {
+                    if (!matches(c, ifMatch)) return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Void>build());
+                    // même effet que cascade = ALL des variantes JPA: items puis catégorie, dans une transaction
+                    return itemRepository.deleteByCategoryId(id)
+                            .then(categoryRepository.delete(c))
+                            .as(tx::transactional)
+                            .thenReturn(ResponseEntity.noContent().<Void>build());
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private static boolean matches(Category c, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) return true;
+        Long version = HttpValidators.ifMatchVersion(c.getId(), ifMatch);
+        return version != null && version.equals(c.getVersion());
+    }
+
+    // relation: /categories/{id}/items
+    @GetMapping("/{id}/items")
+    public Mono<ResponseEntity<PageResponse<ItemDto>>> itemsOfCategory(@PathVariable Long id,
+                                                                       @RequestParam(defaultValue = "0") int page,
+                                                                       @RequestParam(defaultValue = "20") int size,
+                                                                       @RequestParam(required = false) String after,
+                                                                       @RequestParam(defaultValue = "true") boolean count,
+                                                                       ServerWebExchange exchange) {
+        return categoryRepository.existsById(id).flatMap(exists -> {
+            if (!exists) return Mono.just(ResponseEntity.notFound().<PageResponse<ItemDto>>build());
+            Mono<PageResponse<ItemDto>> body = after != null
+                    ? ItemController.listAfter(itemRepository, id, KeysetCursor.decode(after), size)
+                    : ItemController.listPage(itemRepository, id, PageRequest.of(page, size), count);
+            return body.map(b -> HttpValidators.notModified(exchange, b)
+                    ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).<PageResponse<ItemDto>>build()
+                    : ResponseEntity.ok(b));
+        });
+    }
+}
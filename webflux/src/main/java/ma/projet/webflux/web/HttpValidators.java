@@ -0,0 +1,75 @@
+package ma.projet.webflux.web;
+
+import ma.projet.webflux.repository.EntityVersion;
+import ma.projet.webflux.web.dto.PageResponse;
+import ma.projet.webflux.web.dto.Versioned;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+
+/**
+ * Requêtes conditionnelles: GET (If-None-Match / If-Modified-Since -> 304) et PUT/DELETE (If-Match -> 412).
+ * ETag fort: "<id>-<version>" pour une ressource (@Version), "<empreinte des lignes>-<hash query>" pour une liste.
+ * Ressource: décidé avant la lecture de la ligne (requête de version), en cas de 304 ni lecture complète ni
+ * sérialisation. Liste: décidé sur les lignes déjà lues pour la page, avant la sérialisation, sans requête
+ * supplémentaire; ETag et Last-Modified toujours émis, 304 sur If-None-Match seulement.
+ */
+final class HttpValidators {
+    private HttpValidators() {}
+
+    // true: 304 déjà positionné, le handler doit terminer sans corps (Mono.empty())
+    static boolean notModified(ServerWebExchange exchange, Long id, EntityVersion version) {
+        return exchange.checkNotModified(etag(id, version.version()), lastModified(version.lastModified()));
+    }
+
+    static String etag(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Version attendue par If-Match ("<id>-<version>", ETag faible accepté), ou null si l'en-tête
+     * ne désigne pas une version de cette ressource (-> 412). "*" est traité par l'appelant.
+     */
+    static Long ifMatchVersion(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) return null;
+        String prefix = id + "-";
+        tag = tag.substring(1, tag.length() - 1);
+        if (!tag.startsWith(prefix)) return null;
+        try {
+            return Long.valueOf(tag.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Last-Modified (max(updated_at) de la page) est seulement informatif: updated_at est posé avant le commit, une
+     * ligne plus ancienne validée après coup ne le ferait pas avancer. If-Modified-Since n'obtient donc pas de 304.
+     */
+    static boolean notModified(ServerWebExchange exchange, PageResponse<? extends Versioned> page) {
+        long hash = 1;
+        Instant lastModified = null;
+        for (Versioned row : page.getContent()) {
+            hash = mix(mix(hash, row.getId()), row.getVersion());
+            Instant t = row.getUpdatedAt();
+            if (t != null && (lastModified == null || t.isAfter(lastModified))) lastModified = t;
+        }
+        hash = mix(mix(mix(mix(mix(hash, page.getPage()), page.getSize()), page.getTotalElements()), page.isHasNext() ? 1 : 0),
+                page.getNextCursor() != null ? page.getNextCursor().hashCode() : 0);
+        String query = exchange.getRequest().getURI().getRawQuery();
+        if (lastModified != null) exchange.getResponse().getHeaders().setLastModified(lastModified);
+        return exchange.checkNotModified(Long.toHexString(hash) + "-" + Integer.toHexString(query != null ? query.hashCode() : 0));
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    // Instant.MIN: pas de Last-Modified (collection vide)
+    private static Instant lastModified(Instant t) {
+        return t != null ? t : Instant.MIN;
+    }
+}
@@ -0,0 +1,159 @@
+package ma.projet.webflux.web;
+
+import ma.projet.webflux.domain.Item;
+import ma.projet.webflux.repository.CategoryRepository;
+import ma.projet.webflux.repository.ItemRepository;
+import ma.projet.webflux.web.dto.ItemDto;
+import ma.projet.webflux.web.dto.PageResponse;
+import ma.projet.webflux.web.mapper.DtoMappers;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/items")
+public class ItemController {
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+
+    public ItemController(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @GetMapping
+    public Mono<PageResponse<ItemDto>> list(@RequestParam(required = false) Long categoryId,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(defaultValue = "true") boolean count,
+                                            ServerWebExchange exchange) {
+        Mono<PageResponse<ItemDto>> body = after != null
+                ? listAfter(itemRepository, categoryId, KeysetCursor.decode(after), size)
+                : listPage(itemRepository, categoryId, PageRequest.of(page, size), count);
+        // 304: Mono vide, rien à sérialiser
+        return body.filter(b -> !HttpValidators.notModified(exchange, b));
+    }
+
+    // page OFFSET: COUNT en parallèle de la lecture (deux connexions), ou size+1 lignes avec ?count=false
+    static Mono<PageResponse<ItemDto>> listPage(ItemRepository itemRepository, Long categoryId, Pageable pageable, boolean count) {
+        int limit = count ? pageable.getPageSize() : pageable.getPageSize() + 1;
+        Mono<List<Item>> rows = (categoryId != null
+                ? itemRepository.findPageByCategoryId(categoryId, pageable.getOffset(), limit)
+                : itemRepository.findPage(pageable.getOffset(), limit)).collectList();
+        if (!count) return rows.map(r -> PageResponse.from(Slices.of(r, pageable), DtoMappers::toDto));
+        Mono<Long> total = categoryId != null ? itemRepository.countByCategoryId(categoryId) : itemRepository.count();
+        return Mono.zip(rows, total, (r, n) -> PageResponse.from(new PageImpl<>(r, pageable, n), DtoMappers::toDto));
+    }
+
+    // mode keyset: ?after=<curseur> (vide pour la première page)
+    static Mono<PageResponse<ItemDto>> listAfter(ItemRepository itemRepository, Long categoryId, long afterId, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        Flux<Item> rows = categoryId != null
+                ? itemRepository.findAfterByCategoryId(categoryId, afterId, size + 1)
+                : itemRepository.findAfter(afterId, size + 1);
+        return rows.collectList()
+                .map(r -> PageResponse.from(Slices.of(r, pageable), DtoMappers::toDto, i -> KeysetCursor.encode(i.getId())));
+    }
+
+    // export complet en NDJSON, une ligne par item au rythme du client (pas de page, pas de COUNT)
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemDto> export() {
+        return itemRepository.streamAll().map(DtoMappers::toDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ItemDto>> get(@PathVariable Long id, ServerWebExchange exchange) {
+        return itemRepository.findVersionById(id)
+                .flatMap(version -> HttpValidators.notModified(exchange, id, version)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<ItemDto>build())
+                        : itemRepository.findById(id).map(i -> ResponseEntity.ok(DtoMappers.toDto(i))))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ItemDto>> create(@Validated @RequestBody ItemDto dto) {
+        return categoryRepository.existsById(dto.getCategoryId()).flatMap(exists -> {
+            if (!exists) return Mono.just(ResponseEntity.badRequest().<ItemDto>build());
+            Item i = new Item();
+            copy(dto, i);
+            return itemRepository.save(i)
+                    .map(saved -> ResponseEntity.created(URI.create("/items/" + saved.getId())).body(DtoMappers.toDto(saved)));
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ItemDto>> update(@PathVariable Long id, @Validated @RequestBody ItemDto dto,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) return updateIfMatch(id, dto, ifMatch);
+        return itemRepository.findById(id)
+                .flatMap(i -> categoryRepository.existsById(dto.getCategoryId()).flatMap(exists -> {
+                    if (!exists) return Mono.just(ResponseEntity.badRequest().<ItemDto>build());
+                    copy(dto, i);
+                    return itemRepository.save(i).map(saved -> ResponseEntity.ok()
+                            .eTag(HttpValidators.etag(id, saved.getVersion()))
+                            .body(DtoMappers.toDto(saved)));
+                }))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // If-Match: un seul UPDATE ... WHERE id = ? AND version = ?, 412 si la version a changé entre-temps
+    private Mono<ResponseEntity<ItemDto>> updateIfMatch(Long id, ItemDto dto, String ifMatch) {
+        return categoryRepository.existsById(dto.getCategoryId()).flatMap(exists -> {
+            if (!exists) return Mono.just(ResponseEntity.badRequest().<ItemDto>build());
+            Long version = HttpValidators.ifMatchVersion(id, ifMatch);
+            Mono<Long> updated = version != null ? itemRepository.updateIfVersion(id, version, dto) : Mono.empty();
+            return updated
+                    .map(previousCategoryId -> {
+                        dto.setId(id);
+                        if (dto.getPrice() == null) dto.setPrice(BigDecimal.ZERO);
+                        return ResponseEntity.ok().eTag(HttpValidators.etag(id, version + 1)).body(dto);
+                    })
+                    .switchIfEmpty(preconditionFailedOrNotFound(id));
+        });
+    }
+
+    private <T> Mono<ResponseEntity<T>> preconditionFailedOrNotFound(Long id) {
+        return itemRepository.findVersionById(id)
+                .map(v -> ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<T>build())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            Long version = HttpValidators.ifMatchVersion(id, ifMatch);
+            Mono<Long> deleted = version != null ? itemRepository.deleteIfVersion(id, version) : Mono.empty();
+            return deleted
+                    .map(categoryId -> ResponseEntity.noContent().<Void>build())
+                    .switchIfEmpty(preconditionFailedOrNotFound(id));
+        }
+        return itemRepository.findCategoryIdById(id)
+                .flatMap(categoryId -> itemRepository.deleteById(id).thenReturn(ResponseEntity.noContent().<Void>build()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    static void copy(ItemDto dto, Item i) {
+        i.setSku(dto.getSku());
+        i.setName(dto.getName());
+        i.setPrice(dto.getPrice() != null ? dto.getPrice() : BigDecimal.ZERO);
+        i.setStock(dto.getStock());
+        i.setCategoryId(dto.getCategoryId());
+        i.setDescription(dto.getDescription());
+        i.touch();
+    }
+}
@@ -0,0 +1,18 @@
+package ma.projet.webflux.web;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Écriture concurrente détectée par @Version à l'UPDATE (PUT sans If-Match): 409 plutôt que 500.
+ */
+@RestControllerAdvice
+class OptimisticLockAdvice {
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ResponseEntity<Void> conflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
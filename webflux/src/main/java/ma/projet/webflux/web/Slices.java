@@ -0,0 +1,20 @@
+package ma.projet.webflux.web;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Page sans COUNT à partir des size+1 lignes lues: la ligne en trop ne sert qu'à calculer hasNext.
+ */
+final class Slices {
+    private Slices() {}
+
+    static <T> Slice<T> of(List<T> rows, Pageable pageable) {
+        int size = pageable.getPageSize();
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+}
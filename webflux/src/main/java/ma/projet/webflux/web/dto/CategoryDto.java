@@ -0,0 +1,32 @@
+package ma.projet.webflux.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.Instant;
+
+public class CategoryDto implements Versioned {
+    private Long id; // lecture seule
+    @NotBlank
+    private String code;
+    @NotBlank
+    private String name;
+    // validateurs des listes (HttpValidators), ni lus ni écrits en JSON
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private Instant updatedAt;
+
+    public CategoryDto() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,52 @@
+package ma.projet.webflux.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class ItemDto implements Versioned {
+    private Long id; // lecture seule
+    @NotBlank
+    @Size(max = 64)
+    private String sku;
+    @NotBlank
+    @Size(max = 128)
+    private String name;
+    @NotNull
+    @DecimalMin("0.0")
+    private BigDecimal price;
+    @Min(0)
+    private int stock;
+    @NotNull
+    private Long categoryId;
+    // Optional, to simulate heavy body (5 KB)
+    @Size(max = 5000)
+    private String description;
+    // validateurs des listes (HttpValidators), ni lus ni écrits en JSON
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private Instant updatedAt;
+
+    public ItemDto() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    public int getStock() { return stock; }
+    public void setStock(int stock) { this.stock = stock; }
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,74 @@
+package ma.projet.webflux.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Structure de page JSON stable pour éviter d'exposer PageImpl directement.
+ */
+public class PageResponse<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static <E, D> PageResponse<D> from(Page<E> page, Function<E, D> mapper) {
+        PageResponse<D> pr = new PageResponse<>();
+        pr.content = page.getContent().stream().map(mapper).toList();
+        pr.page = page.getNumber();
+        pr.size = page.getSize();
+        pr.totalElements = page.getTotalElements();
+        pr.totalPages = page.getTotalPages();
+        pr.hasNext = page.hasNext();
+        return pr;
+    }
+
+    /**
+     * Page sans COUNT (size+1 lignes lues): totalElements/totalPages valent -1, hasNext indique la suite.
+     */
+    public static <E, D> PageResponse<D> from(Slice<E> slice, Function<E, D> mapper) {
+        PageResponse<D> pr = new PageResponse<>();
+        pr.content = slice.getContent().stream().map(mapper).toList();
+        pr.page = slice.getNumber();
+        pr.size = slice.getSize();
+        pr.totalElements = -1;
+        pr.totalPages = -1;
+        pr.hasNext = slice.hasNext();
+        return pr;
+    }
+
+    /**
+     * Page keyset: comme une Slice, avec nextCursor pointant après le dernier élément (null en fin de parcours).
+     */
+    public static <E, D> PageResponse<D> from(Slice<E> slice, Function<E, D> mapper, Function<E, String> cursor) {
+        PageResponse<D> pr = from(slice, mapper);
+        List<E> rows = slice.getContent();
+        if (slice.hasNext() && !rows.isEmpty()) {
+            pr.nextCursor = cursor.apply(rows.get(rows.size() - 1));
+        }
+        return pr;
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+    public int getTotalPages() { return totalPages; }
+    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
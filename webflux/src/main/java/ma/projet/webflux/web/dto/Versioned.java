@@ -0,0 +1,15 @@
+package ma.projet.webflux.web.dto;
+
+import java.time.Instant;
+
+/**
+ * Ligne de liste portant sa version (@Version) et son updated_at, non sérialisés: ETag et Last-Modified des pages
+ * calculés sur les lignes déjà chargées (HttpValidators), sans requête de version.
+ */
+public interface Versioned {
+    Long getId();
+
+    long getVersion();
+
+    Instant getUpdatedAt();
+}
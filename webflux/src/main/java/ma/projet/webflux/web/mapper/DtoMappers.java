@@ -0,0 +1,36 @@
+package ma.projet.webflux.web.mapper;
+
+import ma.projet.webflux.domain.Category;
+import ma.projet.webflux.domain.Item;
+import ma.projet.webflux.web.dto.CategoryDto;
+import ma.projet.webflux.web.dto.ItemDto;
+
+public final class DtoMappers {
+    private DtoMappers() {}
+
+    public static CategoryDto toDto(Category c) {
+        if (c == null) return null;
+        CategoryDto dto = new CategoryDto();
+        dto.setId(c.getId());
+        dto.setCode(c.getCode());
+        dto.setName(c.getName());
+        dto.setVersion(c.getVersion() != null ? c.getVersion() : 0);
+        dto.setUpdatedAt(c.getUpdatedAt());
+        return dto;
+    }
+
+    public static ItemDto toDto(Item i) {
+        if (i == null) return null;
+        ItemDto dto = new ItemDto();
+        dto.setId(i.getId());
+        dto.setSku(i.getSku());
+        dto.setName(i.getName());
+        dto.setPrice(i.getPrice());
+        dto.setStock(i.getStock());
+        dto.setCategoryId(i.getCategoryId());
+        dto.setDescription(i.getDescription());
+        dto.setVersion(i.getVersion() != null ? i.getVersion() : 0);
+        dto.setUpdatedAt(i.getUpdatedAt());
+        return dto;
+    }
+}